@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Laço de medição no molde do JMH (aquecimento, iterações cronometradas, "blackhole"),
+ * sem dependências, para rodar direto com javac/java.
+ *
+ * Cada iteração chama a operação em laço até esgotar o tempo e mede, pela thread atual,
+ * operações por segundo e bytes alocados (com.sun.management.ThreadMXBean, o mesmo contador
+ * que o profiler "gc" do JMH usa para gc.alloc.rate.norm).
+ */
+final class Harness {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Os resultados das operações vão para cá, para o JIT não eliminar o trabalho
+    private static volatile long sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+
+    Harness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /** Resultado de um benchmark: média e desvio de ops/s e alocação por operação. */
+    record Result(String name, double opsPerSecond, double opsError, double bytesPerOp, double allocMbPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%-34s %14.1f ± %10.1f ops/s  %12.1f B/op  %9.1f MB/s",
+                    name, opsPerSecond, opsError, bytesPerOp, allocMbPerSecond);
+        }
+    }
+
+    Result run(String name, LongSupplier operation) {
+        for (int i = 0; i < warmupIterations; i++) iteration(operation);
+
+        double[] ops = new double[measurementIterations];
+        long totalOps = 0, totalBytes = 0, totalNanos = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] r = iteration(operation);
+            ops[i] = r[0] * 1e9 / r[2];
+            totalOps += r[0];
+            totalBytes += r[1];
+            totalNanos += r[2];
+        }
+        double mean = 0;
+        for (double v : ops) mean += v;
+        mean /= ops.length;
+        double var = 0;
+        for (double v : ops) var += (v - mean) * (v - mean);
+        double error = ops.length > 1 ? Math.sqrt(var / (ops.length - 1)) : 0;
+        return new Result(name, mean, error,
+                (double) totalBytes / Math.max(1, totalOps),
+                totalBytes / (1024.0 * 1024.0) / (totalNanos / 1e9));
+    }
+
+    /** Uma iteração: {operações, bytes alocados, nanossegundos}. */
+    private long[] iteration(LongSupplier operation) {
+        long tid = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long count = 0, acc = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        long now;
+        do {
+            acc += operation.getAsLong();
+            count++;
+        } while ((now = System.nanoTime()) < deadline);
+        long bytes = THREADS.getThreadAllocatedBytes(tid) - bytesBefore;
+        sink += acc;
+        return new long[] {count, bytes, now - start};
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import ai.Evaluation;
+import ai.Evaluator;
+import ai.MinimaxAI;
+import ai.TranspositionTable;
+import controller.Game;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+import java.util.List;
+
+/**
+ * Microbenchmarks dos caminhos quentes que as reescritas do motor mexem: geração de lances
+ * por peça, cópia do tabuleiro, snapshot do jogo, avaliação estática e a busca completa em
+ * profundidade fixa. Cada operação percorre o corpus inteiro de Positions, então os números
+ * são por passada no corpus (12 posições), não por posição.
+ *
+ * Uso: java -cp out benchmark.HotPaths [ms por iteração] [iterações medidas] [filtro]
+ */
+public final class HotPaths {
+
+    // Profundidade da busca medida: rápida o bastante para muitas chamadas por iteração
+    private static final int SEARCH_DEPTH = 3;
+
+    private HotPaths() { }
+
+    public static void main(String[] args) {
+        long iterationMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String filter = args.length > 2 ? args[2] : "";
+        Harness harness = new Harness(3, iterations, iterationMillis);
+
+        List<Game> corpus = Positions.all();
+        BitBoard[] boards = corpus.stream().map(Game::board).toArray(BitBoard[]::new);
+        Game[] games = corpus.toArray(new Game[0]);
+
+        System.out.printf("Corpus: %d posições; aquecimento 3 x %d ms, medição %d x %d ms%n",
+                games.length, iterationMillis, iterations, iterationMillis);
+
+        if ("getPossibleMoves".contains(filter)) {
+            System.out.println(harness.run("Piece.getPossibleMoves", () -> {
+                long n = 0;
+                for (BitBoard b : boards) {
+                    for (Piece p : b.pieces(true)) n += p.getPossibleMoves().size();
+                    for (Piece p : b.pieces(false)) n += p.getPossibleMoves().size();
+                }
+                return n;
+            }));
+        }
+        if ("generateMoves".contains(filter)) {
+            System.out.println(harness.run("Game.generateMoves", () -> {
+                long n = 0;
+                for (Game g : games) n += g.generateMoves().size();
+                return n;
+            }));
+        }
+        if ("generateMoves(int[])".contains(filter)) {
+            int[] buffer = new int[Game.MAX_MOVES];
+            System.out.println(harness.run("Game.generateMoves(int[])", () -> {
+                long n = 0;
+                for (Game g : games) n += g.generateMoves(buffer, 0);
+                return n;
+            }));
+        }
+        if ("copy".contains(filter)) {
+            System.out.println(harness.run("Board.copy", () -> {
+                long n = 0;
+                for (BitBoard b : boards) n += b.copy().occupancy();
+                return n;
+            }));
+        }
+        if ("snapshot".contains(filter)) {
+            System.out.println(harness.run("Game.snapshot", () -> {
+                long n = 0;
+                for (Game g : games) n += g.snapshot().zobristKey();
+                return n;
+            }));
+        }
+        if ("evaluate".contains(filter)) {
+            System.out.println(harness.run("Evaluation.evaluate(BitBoard)", () -> {
+                long n = 0;
+                for (BitBoard b : boards) n += Evaluation.evaluate(b);
+                return n;
+            }));
+            // O que a busca chama nas folhas: totais mantidos pelo Game
+            System.out.println(harness.run("Evaluation.evaluate(Game)", () -> {
+                long n = 0;
+                for (Game g : games) n += Evaluation.evaluate(g);
+                return n;
+            }));
+            // Com tabela de peões e cache de avaliação (após o aquecimento, tudo acerta)
+            Evaluator evaluator = new Evaluator();
+            System.out.println(harness.run("Evaluator.evaluate", () -> {
+                long n = 0;
+                for (Game g : games) n += evaluator.evaluate(g);
+                return n;
+            }));
+        }
+        if ("findBestMove".contains(filter)) {
+            // Tabela pequena e zerada a cada busca: nada aquecido entre medições, e sem medir
+            // a alocação de uma tabela de 32 MB por chamada
+            TranspositionTable tt = new TranspositionTable(1);
+            MinimaxAI ai = new MinimaxAI(Long.MAX_VALUE / 4, tt);
+            ai.setMaxDepth(SEARCH_DEPTH);
+            System.out.println(harness.run("MinimaxAI.findBestMove (d" + SEARCH_DEPTH + ")", () -> {
+                long n = 0;
+                for (Game g : games) {
+                    tt.clear();
+                    ai.findBestMove(g);
+                    n += ai.getNodes();
+                }
+                return n;
+            }));
+        }
+    }
+}
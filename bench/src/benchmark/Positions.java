@@ -0,0 +1,38 @@
+package benchmark;
+
+import controller.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Corpus fixo de posições dos benchmarks: meio-jogo e final, sempre os mesmos entre execuções. */
+final class Positions {
+
+    static final String[] MIDDLEGAME = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 8",
+            "r2q1rk1/pp1nbppp/2p1pn2/3p4/2PP4/1PN1PN2/PB3PPP/R2QKB1R w KQ - 0 9",
+            "rnbq1rk1/ppp1bppp/4pn2/3p4/2PP4/2N2N2/PP2PPPP/R1BQKB1R w KQ - 4 6",
+            "r1bqkb1r/pp3ppp/2np1n2/4p3/3NP3/2N5/PPP2PPP/R1BQKB1R w KQkq - 0 7",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+    };
+
+    static final String[] ENDGAME = {
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1",
+            "8/5pk1/6p1/8/3R4/6P1/5PK1/r7 w - - 0 40",
+            "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1",
+            "8/8/8/3k4/8/8/8/R3K3 w Q - 0 1",
+            "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1",
+    };
+
+    private Positions() { }
+
+    /** Todas as posições, meio-jogo primeiro. */
+    static List<Game> all() {
+        List<Game> games = new ArrayList<>();
+        for (String fen : MIDDLEGAME) games.add(Game.fromFen(fen));
+        for (String fen : ENDGAME) games.add(Game.fromFen(fen));
+        return games;
+    }
+}
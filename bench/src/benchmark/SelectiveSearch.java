@@ -0,0 +1,77 @@
+package benchmark;
+
+import ai.MinimaxAI;
+import ai.SearchStats;
+import controller.Game;
+import model.board.Move;
+
+import java.util.List;
+
+/**
+ * Nós e tempo até a profundidade com cada poda seletiva de MinimaxAI (lance nulo, LMR,
+ * futilidade) ligada sozinha, todas juntas e nenhuma, no corpus de Positions. Conta também
+ * em quantas posições o lance escolhido difere da busca sem podas: a poda economiza nós, mas
+ * o que decide se ela fica é o resultado em partidas (tools.Tournament com nullmove/lmr/futility).
+ *
+ * Cada busca usa uma instância nova (tabela vazia).
+ *
+ * Uso: java -cp out benchmark.SelectiveSearch [profundidade]
+ */
+public final class SelectiveSearch {
+
+    private static final String[] NAMES = {"nenhuma", "lance nulo", "lmr", "futilidade", "todas"};
+    // {lance nulo, lmr, futilidade} de cada configuração, na ordem de NAMES
+    private static final boolean[][] CONFIGS = {
+            {false, false, false},
+            {true, false, false},
+            {false, true, false},
+            {false, false, true},
+            {true, true, true},
+    };
+
+    private SelectiveSearch() { }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        List<Game> corpus = Positions.all();
+
+        // aquecimento do JIT: uma rodada completa descartada
+        for (boolean[] config : CONFIGS) {
+            for (Game game : corpus) search(game, depth, config, null);
+        }
+
+        Move[] baseline = new Move[corpus.size()];
+        long baseNodes = 0;
+        for (int c = 0; c < CONFIGS.length; c++) {
+            long nodes = 0, millis = 0;
+            int changed = 0;
+            for (int i = 0; i < corpus.size(); i++) {
+                Move[] best = new Move[1];
+                SearchStats stats = search(corpus.get(i), depth, CONFIGS[c], best);
+                nodes += stats.nodes() + stats.quiescenceNodes();
+                millis += stats.elapsedMillis();
+                if (c == 0) baseline[i] = best[0];
+                else if (!same(baseline[i], best[0])) changed++;
+            }
+            if (c == 0) baseNodes = nodes;
+            System.out.printf("%-11s profundidade %d: %,12d nós (%5.1f%%) %7d ms   lance diferente em %d/%d%n",
+                    NAMES[c], depth, nodes, 100.0 * nodes / Math.max(1, baseNodes), millis, changed, corpus.size());
+        }
+    }
+
+    private static SearchStats search(Game game, int depth, boolean[] config, Move[] best) {
+        MinimaxAI ai = new MinimaxAI(Long.MAX_VALUE / 4);
+        ai.setMaxDepth(depth);
+        ai.setNullMovePruning(config[0]);
+        ai.setLateMoveReductions(config[1]);
+        ai.setFutilityPruning(config[2]);
+        Move move = ai.findBestMove(game);
+        if (best != null) best[0] = move;
+        return ai.getLastSearchStats();
+    }
+
+    private static boolean same(Move a, Move b) {
+        if (a == null || b == null) return a == b;
+        return a.getFrom().equals(b.getFrom()) && a.getTo().equals(b.getTo());
+    }
+}
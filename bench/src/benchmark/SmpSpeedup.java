@@ -0,0 +1,94 @@
+package benchmark;
+
+import ai.LazySmpAI;
+import ai.MinimaxAI;
+import ai.ParallelMinimaxAI;
+import controller.Game;
+import model.board.Position;
+
+/**
+ * Tempo até a profundidade: MinimaxAI (1 thread) contra LazySmpAI e ParallelMinimaxAI
+ * (divisão YBWC) com N threads, nas mesmas posições e profundidade fixa. Cada busca usa instâncias novas (tabela vazia).
+ *
+ * Uso: java -cp out benchmark.SmpSpeedup [profundidade] [threads]
+ */
+public final class SmpSpeedup {
+
+    // Aberturas em notação de coordenadas, jogadas a partir da posição inicial
+    private static final String[] POSITIONS = {
+            "e2e4 e7e5 g1f3 b8c6 f1c4 g8f6 d2d3 f8c5 b1c3 d7d6 c1g5 h7h6",
+            "d2d4 d7d5 c2c4 e7e6 b1c3 g8f6 c1g5 f8e7 e2e3 e8g8",
+            "e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6 c1e3 e7e5 d4b3",
+    };
+
+    private SmpSpeedup() { }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        // aquecimento do JIT: uma rodada completa descartada, para não favorecer quem roda depois
+        for (String line : POSITIONS) {
+            timeSingle(play(line), depth);
+            timeSmp(play(line), depth, threads);
+            timeYbwc(play(line), depth, threads);
+        }
+
+        long single = 0, smp = 0, ybwc = 0;
+        for (String line : POSITIONS) {
+            Game game = play(line);
+            long s = timeSingle(game, depth);
+            long p = timeSmp(game, depth, threads);
+            long y = timeYbwc(game, depth, threads);
+            single += s;
+            smp += p;
+            ybwc += y;
+            System.out.printf("%-60s 1 thread: %6d ms   lazy smp: %6d ms (%.2fx)   ybwc: %6d ms (%.2fx)%n",
+                    line.substring(0, Math.min(line.length(), 60)), s,
+                    p, (double) s / Math.max(1, p), y, (double) s / Math.max(1, y));
+        }
+        System.out.printf("Total (profundidade %d, %d threads): %d ms; lazy smp %d ms (%.2fx); ybwc %d ms (%.2fx)%n",
+                depth, threads, single, smp, (double) single / Math.max(1, smp),
+                ybwc, (double) single / Math.max(1, ybwc));
+    }
+
+    private static long timeSingle(Game game, int depth) {
+        MinimaxAI ai = new MinimaxAI(Long.MAX_VALUE / 4);
+        ai.setMaxDepth(depth);
+        long t = System.nanoTime();
+        ai.findBestMove(game);
+        return (System.nanoTime() - t) / 1_000_000;
+    }
+
+    private static long timeSmp(Game game, int depth, int threads) {
+        LazySmpAI ai = new LazySmpAI(threads, Long.MAX_VALUE / 4);
+        ai.setMaxDepth(depth);
+        long t = System.nanoTime();
+        ai.findBestMove(game);
+        long ms = (System.nanoTime() - t) / 1_000_000;
+        ai.shutdown();
+        return ms;
+    }
+
+    private static long timeYbwc(Game game, int depth, int threads) {
+        ParallelMinimaxAI ai = new ParallelMinimaxAI(threads, Long.MAX_VALUE / 4);
+        ai.setMaxDepth(depth);
+        long t = System.nanoTime();
+        ai.findBestMove(game);
+        long ms = (System.nanoTime() - t) / 1_000_000;
+        ai.shutdown();
+        return ms;
+    }
+
+    static Game play(String line) {
+        Game game = new Game();
+        for (String mv : line.split(" ")) {
+            game.move(square(mv.substring(0, 2)), square(mv.substring(2, 4)), null);
+        }
+        return game;
+    }
+
+    private static Position square(String s) {
+        return new Position(8 - (s.charAt(1) - '0'), s.charAt(0) - 'a');
+    }
+}
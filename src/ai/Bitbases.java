@@ -0,0 +1,252 @@
+package ai;
+
+import controller.Game;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bitbases de finais simples (rei e peão, rei e torre, rei e dama contra rei sozinho):
+ * um bit por posição, 1 = vitória do lado forte, 0 = empate (o lado forte nunca perde).
+ * Os arquivos são gerados por análise retrógrada (tools.BitbaseGenerator) e lidos por
+ * MappedByteBuffer; a busca consulta a posição e recebe o resultado exato na hora.
+ *
+ * Índice (o lado forte é sempre tratado como Brancas; se for das Pretas, o tabuleiro é
+ * espelhado nas fileiras):
+ * <pre>
+ *   KRK, KQK: ((triângulo(rei forte) * 64 + rei fraco) * 64 + peça) * 2 + lado
+ *   KPK:      ((casa do peão * 64 + rei forte) * 64 + rei fraco) * 2 + lado
+ * </pre>
+ * Simetria: nos finais sem peão o rei forte é levado ao triângulo a1-d1-d4 (10 casas) por
+ * espelhamentos e pela diagonal; no KPK o peão é levado às colunas a-d (24 casas).
+ * 'lado' é 0 com o lado forte a jogar e 1 com o fraco.
+ */
+public final class Bitbases {
+
+    /** Resultado de probe() quando a posição não está em nenhuma bitbase carregada. */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    public enum Ending {
+        KPK(Piece.PAWN, 24),
+        KRK(Piece.ROOK, 10),
+        KQK(Piece.QUEEN, 10);
+
+        public final int pieceType;
+        /** Número de posições (índices), legais ou não. */
+        public final int size;
+
+        Ending(int pieceType, int firstSlots) {
+            this.pieceType = pieceType;
+            this.size = firstSlots * 64 * 64 * 2;
+        }
+
+        public String fileName() {
+            return name().toLowerCase() + ".bb";
+        }
+
+        /** Tamanho do arquivo em bytes: os bits em longs inteiros. */
+        public long fileBytes() {
+            return (size + 63L) / 64 * 8;
+        }
+    }
+
+    // Casa -> posição no triângulo a1-d1-d4, ou -1
+    private static final int[] TRIANGLE = new int[64];
+    private static final int[] TRIANGLE_SQUARE = new int[10];
+
+    static {
+        int n = 0;
+        for (int sq = 0; sq < 64; sq++) TRIANGLE[sq] = -1;
+        for (int rank = 0; rank < 4; rank++) {
+            for (int file = rank; file < 4; file++) {
+                int sq = square(file, rank);
+                TRIANGLE[sq] = n;
+                TRIANGLE_SQUARE[n++] = sq;
+            }
+        }
+    }
+
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[Ending.values().length];
+
+    private Bitbases() { }
+
+    /**
+     * Mapeia os arquivos de bitbase da pasta; finais sem arquivo ficam de fora. Um arquivo com
+     * tamanho errado (truncado ou de outro formato) é IOException, não um final a menos.
+     */
+    public static Bitbases open(Path folder) throws IOException {
+        Bitbases b = new Bitbases();
+        for (Ending e : Ending.values()) {
+            Path file = folder.resolve(e.fileName());
+            if (!Files.isRegularFile(file)) continue;
+            long bytes = Files.size(file);
+            if (bytes != e.fileBytes()) {
+                throw new IOException(file + ": " + bytes + " bytes, esperado " + e.fileBytes());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                b.tables[e.ordinal()] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return b;
+    }
+
+    /**
+     * As bitbases da pasta, ou null se não houver nenhuma (jogar sem bitbases). Um arquivo que
+     * existe mas não pode ser lido sai como UncheckedIOException, como em OpeningBook.
+     */
+    public static Bitbases openIfPresent(Path folder) {
+        if (!Files.isDirectory(folder)) return null;
+        Bitbases b;
+        try {
+            b = open(folder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bitbases ilegíveis em " + folder, e);
+        }
+        for (MappedByteBuffer t : b.tables) {
+            if (t != null) return b;
+        }
+        return null;
+    }
+
+    public boolean has(Ending e) {
+        return tables[e.ordinal()] != null;
+    }
+
+    /**
+     * Score exato da posição, do ponto de vista das Brancas: 0 no empate, e na vitória
+     * Evaluation.KNOWN_WIN mais um termo de progresso (peão avançado, rei fraco na borda e
+     * reis próximos), para a busca saber qual vitória está mais perto. UNKNOWN fora das
+     * bitbases. Posição de mate com o lado fraco a jogar também volta UNKNOWN: a busca acha
+     * o mate de verdade, que vale mais que qualquer vitória "conhecida".
+     */
+    public int probe(Game game) {
+        BitBoard board = game.board();
+        if (Long.bitCount(board.occupancy()) != 3) return UNKNOWN;
+
+        for (Ending e : Ending.values()) {
+            MappedByteBuffer table = tables[e.ordinal()];
+            if (table == null) continue;
+            long white = board.bitboard(e.pieceType, true);
+            long black = board.bitboard(e.pieceType, false);
+            if ((white | black) == 0) continue;
+
+            boolean strongWhite = white != 0;
+            // Lado forte como Brancas: com as Pretas fortes, espelha as fileiras
+            int flip = strongWhite ? 0 : 56;
+            int strongKing = board.kingSquare(strongWhite) ^ flip;
+            int weakKing = board.kingSquare(!strongWhite) ^ flip;
+            int piece = Long.numberOfTrailingZeros(white | black) ^ flip;
+            boolean strongToMove = game.whiteToMove() == strongWhite;
+
+            int index = index(e, strongKing, weakKing, piece, strongToMove);
+            if (!isWin(table, index)) return 0;
+            if (!strongToMove && weakKingHasNoMoves(e, strongKing, weakKing, piece)) return UNKNOWN;
+            int score = Evaluation.KNOWN_WIN + progress(e, strongKing, weakKing, piece);
+            return strongWhite ? score : -score;
+        }
+        return UNKNOWN;
+    }
+
+    private static boolean isWin(MappedByteBuffer table, int index) {
+        return (table.get(index >>> 3) & (1 << (index & 7))) != 0;
+    }
+
+    /** Quanto mais perto do fim da vitória, maior (só ordena as vitórias entre si). */
+    private static int progress(Ending e, int strongKing, int weakKing, int piece) {
+        if (e == Ending.KPK) return 30 * rank(piece);
+        int center = Math.max(3 - file(weakKing), file(weakKing) - 4) + Math.max(3 - rank(weakKing), rank(weakKing) - 4);
+        int distance = Math.abs(file(strongKing) - file(weakKing)) + Math.abs(rank(strongKing) - rank(weakKing));
+        return Evaluation.pieceValue(e.pieceType) + 10 * center + 4 * (14 - distance);
+    }
+
+    // ==== índice e simetrias (também usados pelo gerador) ====
+
+    /**
+     * Índice canônico da posição com o lado forte como Brancas (casas 0..63, a8 = 0). As
+     * casas podem ser quaisquer: aqui elas são levadas à forma canônica.
+     */
+    public static int index(Ending e, int strongKing, int weakKing, int piece, boolean strongToMove) {
+        int side = strongToMove ? 0 : 1;
+        if (e == Ending.KPK) {
+            if (file(piece) > 3) {
+                strongKing ^= 7;
+                weakKing ^= 7;
+                piece ^= 7;
+            }
+            int pawn = (rank(piece) - 1) * 4 + file(piece);
+            return ((pawn * 64 + strongKing) * 64 + weakKing) * 2 + side;
+        }
+        if (file(strongKing) > 3) {
+            strongKing ^= 7;
+            weakKing ^= 7;
+            piece ^= 7;
+        }
+        if (rank(strongKing) > 3) {
+            strongKing ^= 56;
+            weakKing ^= 56;
+            piece ^= 56;
+        }
+        if (rank(strongKing) > file(strongKing)) {
+            strongKing = transpose(strongKing);
+            weakKing = transpose(weakKing);
+            piece = transpose(piece);
+        }
+        return ((TRIANGLE[strongKing] * 64 + weakKing) * 64 + piece) * 2 + side;
+    }
+
+    /**
+     * Casas de um índice canônico: {rei forte, rei fraco, peça, lado (0 = forte joga)}.
+     * Nem todo índice é uma posição legal; quem chama confere.
+     */
+    public static int[] decode(Ending e, int index) {
+        int side = index & 1;
+        int rest = index >>> 1;
+        int third = rest & 63;
+        int second = (rest >>> 6) & 63;
+        int first = rest >>> 12;
+        if (e == Ending.KPK) {
+            int pawn = square(first & 3, (first >>> 2) + 1);
+            return new int[]{second, third, pawn, side};
+        }
+        return new int[]{TRIANGLE_SQUARE[first], second, third, side};
+    }
+
+    /**
+     * Casas atacadas pela peça forte (com os reis como bloqueadores; o rei fraco não bloqueia,
+     * para que ele não possa "fugir" ao longo do raio que o ataca).
+     */
+    public static long pieceAttacks(Ending e, int piece, int strongKing) {
+        long occupied = 1L << strongKing;
+        return switch (e) {
+            case KPK -> Attacks.PAWN[BitBoard.WHITE][piece];
+            case KRK -> Attacks.rook(piece, occupied);
+            case KQK -> Attacks.queen(piece, occupied);
+        };
+    }
+
+    private static boolean weakKingHasNoMoves(Ending e, int strongKing, int weakKing, int piece) {
+        long guarded = Attacks.KING[strongKing] | pieceAttacks(e, piece, strongKing);
+        return (Attacks.KING[weakKing] & ~guarded) == 0;
+    }
+
+    /** Coluna 0..7 (a..h). */
+    public static int file(int sq) { return sq & 7; }
+
+    /** Fileira 0..7 (1ª..8ª), do ponto de vista das Brancas. */
+    public static int rank(int sq) { return 7 - (sq >>> 3); }
+
+    public static int square(int file, int rank) { return (7 - rank) * 8 + file; }
+
+    // Reflexão na diagonal a1-h8: troca coluna e fileira
+    private static int transpose(int sq) {
+        return square(rank(sq), file(sq));
+    }
+}
@@ -0,0 +1,50 @@
+package ai;
+
+/**
+ * Cache da avaliação estática pela chave Zobrist completa. Transposições e a quiescência
+ * (que avalia a mesma folha de novo a cada stand pat) reaproveitam o resultado.
+ *
+ * Cada entrada é um long: os 32 bits altos da chave conferem a posição e os 32 baixos guardam
+ * a avaliação; o índice vem dos bits baixos da chave. Endereçamento direto, substituição
+ * sempre, sem compartilhamento entre threads.
+ */
+public class EvalCache {
+
+    private static final long CHECK_MASK = 0xFFFFFFFF00000000L;
+
+    private final long[] entries;
+    private final int mask;
+    private long probes, hits;
+
+    /** @param entries número de entradas, arredondado para baixo até uma potência de 2. */
+    public EvalCache(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Avaliação guardada para a chave, ou Integer.MIN_VALUE se não houver.
+     * (Entradas vazias valem 0 e só conferem com chaves de 32 bits altos zerados: o mesmo
+     * risco de colisão de qualquer outra entrada.)
+     */
+    public int probe(long key) {
+        probes++;
+        long entry = entries[(int) key & mask];
+        if (((entry ^ key) & CHECK_MASK) != 0) return Integer.MIN_VALUE;
+        hits++;
+        return (int) entry;
+    }
+
+    public void store(long key, int score) {
+        entries[(int) key & mask] = (key & CHECK_MASK) | (score & 0xFFFFFFFFL);
+    }
+
+    public long getProbes() { return probes; }
+
+    public long getHits() { return hits; }
+
+    public void resetStats() {
+        probes = hits = 0;
+    }
+}
@@ -0,0 +1,160 @@
+package ai;
+
+import controller.Game;
+import controller.PieceSquareTables;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+/**
+ * Função de avaliação compartilhada pelos motores (MinimaxAI, NegamaxAI).
+ * Pontuação positiva favorece as Brancas, negativa favorece as Pretas. [cite: 245]
+ */
+public final class Evaluation {
+
+    // --- Valores das Peças (definidos com as tabelas peça-casa, que o Game mantém) ---
+    public static final int PAWN_VALUE = PieceSquareTables.PAWN_VALUE;
+    public static final int KNIGHT_VALUE = PieceSquareTables.KNIGHT_VALUE;
+    public static final int BISHOP_VALUE = PieceSquareTables.BISHOP_VALUE;
+    public static final int ROOK_VALUE = PieceSquareTables.ROOK_VALUE;
+    public static final int QUEEN_VALUE = PieceSquareTables.QUEEN_VALUE;
+    public static final int KING_VALUE = PieceSquareTables.KING_VALUE;
+
+    // Mate em 'ply' meios-lances vale MATE - ply (mates mais curtos valem mais);
+    // qualquer score com módulo acima de MATE_BOUND é mate
+    public static final int MATE = 100_000;
+    public static final int MATE_BOUND = MATE - 1000;
+    // Vitória teórica sem mate à vista (bitbases): acima de qualquer avaliação, abaixo dos mates
+    public static final int KNOWN_WIN = 50_000;
+
+    // --- Estrutura de peões (meio-jogo / final) ---
+    private static final int DOUBLED_MG = -10, DOUBLED_EG = -20;     // por peão a mais na coluna
+    private static final int ISOLATED_MG = -10, ISOLATED_EG = -15;   // sem peão amigo nas colunas vizinhas
+    // Peão passado, pelo número de fileiras já avançadas (0 = casa inicial)
+    private static final int[] PASSED_MG = {0, 5, 10, 20, 35, 60, 0, 0};
+    private static final int[] PASSED_EG = {0, 10, 20, 40, 70, 110, 0, 0};
+
+    private static final long[] FILE = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // [0 = Brancas, 1 = Pretas][casa]: casas à frente do peão na própria coluna e nas vizinhas
+    private static final long[][] PASSED_SPAN = new long[2][64];
+
+    static {
+        for (int c = 0; c < 8; c++) {
+            for (int r = 0; r < 8; r++) FILE[c] |= 1L << (r * 8 + c);
+        }
+        for (int c = 0; c < 8; c++) {
+            ADJACENT_FILES[c] = (c > 0 ? FILE[c - 1] : 0) | (c < 7 ? FILE[c + 1] : 0);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq >>> 3;
+            long span = FILE[sq & 7] | ADJACENT_FILES[sq & 7];
+            long ahead = 0, behind = 0;
+            for (int r = 0; r < 8; r++) {
+                if (r < row) ahead |= 0xFFL << (r * 8);     // Brancas andam para a fileira 0 (8ª)
+                if (r > row) behind |= 0xFFL << (r * 8);
+            }
+            PASSED_SPAN[0][sq] = span & ahead;
+            PASSED_SPAN[1][sq] = span & behind;
+        }
+    }
+
+    private Evaluation() { }
+
+    /** Valor material de um tipo de peça (Piece.PAWN..KING). */
+    public static int pieceValue(int type) {
+        return PieceSquareTables.pieceValue(type);
+    }
+
+    /**
+     * Avalia a posição do ponto de vista das Brancas: material e tabelas peça-casa (totais
+     * mantidos pelo Game a cada lance) mais a estrutura de peões, interpolados entre meio-jogo
+     * e final pela fase do jogo. A estrutura de peões é recalculada aqui; a busca usa
+     * Evaluator, que a guarda numa tabela de peões.
+     */
+    public static int evaluate(Game game) {
+        return evaluate(game, pawnStructure(game.board()));
+    }
+
+    /** Avaliação com o termo de peões (empacotado por pawnStructure) já calculado. */
+    static int evaluate(Game game, int pawns) {
+        return PieceSquareTables.taper(game.midgameScore() + midgame(pawns),
+                game.endgameScore() + endgame(pawns), game.phase());
+    }
+
+    /**
+     * A mesma avaliação calculada do zero a partir dos bitboards (sem o Game). Serve de
+     * referência para conferir os totais incrementais.
+     */
+    public static int evaluate(BitBoard board) {
+        int midgame = 0, endgame = 0, phase = 0;
+        for (long bb = board.occupancy(); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            Piece p = board.pieceAt(sq);
+            midgame += PieceSquareTables.midgame(p.getIndex(), sq);
+            endgame += PieceSquareTables.endgame(p.getIndex(), sq);
+            phase += PieceSquareTables.phase(p.getType());
+        }
+        int pawns = pawnStructure(board);
+        return PieceSquareTables.taper(midgame + midgame(pawns), endgame + endgame(pawns), phase);
+    }
+
+    /**
+     * Peões dobrados, isolados e passados, do ponto de vista das Brancas. Depende só da
+     * posição dos peões, por isso pode ser guardado pela chave de peões (Game.pawnKey).
+     * Devolve meio-jogo e final empacotados num int (ver midgame/endgame).
+     */
+    public static int pawnStructure(BitBoard board) {
+        long white = board.bitboard(Piece.PAWN, true);
+        long black = board.bitboard(Piece.PAWN, false);
+        int mg = 0, eg = 0;
+        for (int side = 0; side < 2; side++) {
+            long own = side == 0 ? white : black;
+            long enemy = side == 0 ? black : white;
+            int sign = side == 0 ? 1 : -1;
+            for (int c = 0; c < 8; c++) {
+                int onFile = Long.bitCount(own & FILE[c]);
+                if (onFile == 0) continue;
+                if (onFile > 1) {
+                    mg += sign * DOUBLED_MG * (onFile - 1);
+                    eg += sign * DOUBLED_EG * (onFile - 1);
+                }
+                if ((own & ADJACENT_FILES[c]) == 0) {
+                    mg += sign * ISOLATED_MG * onFile;
+                    eg += sign * ISOLATED_EG * onFile;
+                }
+            }
+            for (long bb = own; bb != 0; bb &= bb - 1) {
+                int sq = Long.numberOfTrailingZeros(bb);
+                if ((PASSED_SPAN[side][sq] & enemy) != 0) continue;
+                int advanced = side == 0 ? 6 - (sq >>> 3) : (sq >>> 3) - 1;
+                mg += sign * PASSED_MG[advanced];
+                eg += sign * PASSED_EG[advanced];
+            }
+        }
+        return pack(mg, eg);
+    }
+
+    // Meio-jogo nos 16 bits baixos (com sinal) e final nos altos, como um só int
+    static int pack(int midgame, int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    static int midgame(int packed) {
+        return (short) packed;
+    }
+
+    static int endgame(int packed) {
+        return (packed + 0x8000) >> 16;
+    }
+
+    /** Score de quem está levando mate no 'ply' atual (negativo; somar ply = mate mais distante é menos ruim). */
+    public static int matedIn(int ply) {
+        return -MATE + ply;
+    }
+
+    /** Mesma avaliação, mas do ponto de vista de quem tem a vez (usada pelo negamax). */
+    public static int evaluateForSideToMove(Game game) {
+        int score = evaluate(game);
+        return game.whiteToMove() ? score : -score;
+    }
+}
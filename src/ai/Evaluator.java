@@ -0,0 +1,54 @@
+package ai;
+
+import controller.Game;
+
+/**
+ * Avaliação com caches, uma instância por busca (e por thread): a mesma de
+ * Evaluation.evaluate(Game), mas com o termo de peões guardado numa PawnHashTable e o
+ * resultado final num EvalCache.
+ */
+public class Evaluator {
+
+    // 16K entradas de peões (~200 KB) e 64K de avaliação (512 KB) por busca
+    private static final int PAWN_ENTRIES = 1 << 14;
+    private static final int EVAL_ENTRIES = 1 << 16;
+
+    private final PawnHashTable pawns = new PawnHashTable(PAWN_ENTRIES);
+    private final EvalCache cache = new EvalCache(EVAL_ENTRIES);
+
+    /** Avaliação do ponto de vista das Brancas. */
+    public int evaluate(Game game) {
+        long key = game.zobristKey();
+        int score = cache.probe(key);
+        if (score != Integer.MIN_VALUE) return score;
+        score = Evaluation.evaluate(game, pawns.probe(game.pawnKey(), game.board()));
+        cache.store(key, score);
+        return score;
+    }
+
+    /** Avaliação do ponto de vista de quem tem a vez (negamax, quiescência). */
+    public int evaluateForSideToMove(Game game) {
+        int score = evaluate(game);
+        return game.whiteToMove() ? score : -score;
+    }
+
+    /** Fração das consultas à tabela de peões que acertaram (0 se não houve consultas). */
+    public double pawnHitRate() {
+        return rate(pawns.getHits(), pawns.getProbes());
+    }
+
+    /** Fração das consultas ao cache de avaliação que acertaram (0 se não houve consultas). */
+    public double evalCacheHitRate() {
+        return rate(cache.getHits(), cache.getProbes());
+    }
+
+    /** Zera os contadores de acerto (o conteúdo das tabelas continua válido entre buscas). */
+    public void resetStats() {
+        pawns.resetStats();
+        cache.resetStats();
+    }
+
+    private static double rate(long hits, long probes) {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+}
@@ -0,0 +1,151 @@
+package ai;
+
+import controller.Game;
+import model.board.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Busca paralela "Lazy SMP" sobre MinimaxAI.
+ *
+ * Todas as threads rodam o mesmo aprofundamento iterativo, cada uma com sua cópia do jogo,
+ * sua ordenação de lances e sua quiescência; a única coisa compartilhada é a tabela de
+ * transposição (sem locks). As auxiliares começam em profundidades alternadas (1 ou 2) para
+ * não andarem em fase com a principal, e o que elas gravam na tabela acelera a principal.
+ * O lance devolvido é sempre o da thread principal.
+ */
+public class LazySmpAI {
+
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+    private static final int TT_SIZE_MB = 64;
+
+    private final TranspositionTable tt = new TranspositionTable(TT_SIZE_MB);
+    // workers[0] é a busca principal, que roda na thread de quem chamou findBestMove
+    private final MinimaxAI[] workers;
+    private final ExecutorService helpers;
+    private final long moveTimeMillis;
+    private SearchStats lastStats;
+    private SearchMonitor monitor;
+
+    /** Uma thread por processador disponível. */
+    public LazySmpAI() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MOVE_TIME_MS);
+    }
+
+    /**
+     * @param threads total de threads de busca (1 = equivalente a MinimaxAI).
+     * @param moveTimeMillis tempo de relógio disponível para cada lance.
+     */
+    public LazySmpAI(int threads, long moveTimeMillis) {
+        this.moveTimeMillis = moveTimeMillis;
+        this.workers = new MinimaxAI[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new MinimaxAI(moveTimeMillis, tt);
+        }
+        this.helpers = workers.length > 1
+                ? Executors.newFixedThreadPool(workers.length - 1, r -> {
+                    Thread t = new Thread(r, "lazy-smp-helper");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        for (MinimaxAI w : workers) w.setMaxDepth(maxDepth);
+    }
+
+    public void setBitbases(Bitbases bitbases) {
+        for (MinimaxAI w : workers) w.setBitbases(bitbases);
+    }
+
+    public void setNullMovePruning(boolean enabled) {
+        for (MinimaxAI w : workers) w.setNullMovePruning(enabled);
+    }
+
+    public void setLateMoveReductions(boolean enabled) {
+        for (MinimaxAI w : workers) w.setLateMoveReductions(enabled);
+    }
+
+    public void setFutilityPruning(boolean enabled) {
+        for (MinimaxAI w : workers) w.setFutilityPruning(enabled);
+    }
+
+    /** Nós visitados na última busca, somando todas as threads. */
+    public long getNodes() {
+        long total = 0;
+        for (MinimaxAI w : workers) total += w.getNodes();
+        return total;
+    }
+
+    /** Publica o resumo de cada busca no monitor JMX; null desliga. */
+    public void setSearchMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Resumo da última busca: profundidade e iterações da thread principal, contadores
+     * somados de todas.
+     */
+    public SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+
+    public Move findBestMove(Game game) {
+        return findBestMove(game, TimeManager.forMoveTime(moveTimeMillis));
+    }
+
+    public Move findBestMove(Game game, TimeManager time) {
+        tt.newSearch();
+        // As auxiliares param quando a principal termina (prazo ou profundidade máxima)
+        TimeManager helperTime = TimeManager.infinite();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++) {
+            MinimaxAI helper = workers[i];
+            Game copy = game.snapshot();
+            int firstDepth = 1 + (i & 1);
+            running.add(helpers.submit(() -> helper.iterativeDeepening(copy, helperTime, firstDepth)));
+        }
+
+        Move best;
+        Throwable helperFailure = null;
+        try {
+            best = workers[0].iterativeDeepening(game.snapshot(), time, 1);
+        } finally {
+            helperTime.stop();
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    if (helperFailure == null) helperFailure = e.getCause();
+                }
+            }
+        }
+        // Uma auxiliar que caiu é um erro da busca como outro qualquer: sobe para quem chamou
+        if (helperFailure != null) throw new IllegalStateException("Falha numa thread auxiliar da busca", helperFailure);
+        SearchStats stats = workers[0].getLastSearchStats();
+        for (int i = 1; i < workers.length && stats != null; i++) {
+            SearchStats helper = workers[i].getLastSearchStats();
+            if (helper != null) stats = stats.merge(helper);
+        }
+        lastStats = stats;
+        if (monitor != null && stats != null) monitor.record(stats);
+        return best;
+    }
+
+    /** Encerra as threads auxiliares. */
+    public void shutdown() {
+        if (helpers != null) helpers.shutdownNow();
+    }
+}
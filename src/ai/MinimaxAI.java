@@ -1,163 +1,606 @@
 package ai;
 
 import controller.Game;
-import model.board.Board;
+import model.board.BitBoard;
 import model.board.Move;
-import model.board.Position;
-import model.pieces.*;
+import model.board.PackedMove;
+import model.pieces.Piece;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * AI Nível 3: Usa o algoritmo Minimax com poda Alfa-Beta para escolher o melhor movimento.
  */
 public class MinimaxAI {
 
-    // Profundidade da busca (quantos lances à frente a IA vai analisar)
-    private static final int SEARCH_DEPTH = 3;
+    // Limite de profundidade do aprofundamento iterativo; na prática quem para é o relógio
+    private static final int MAX_DEPTH = 64;
+    // Tempo padrão por lance (ms) quando a GUI não informa outro
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+    // Meia-largura da janela de aspiração em torno do score da iteração anterior
+    private static final int ASPIRATION_WINDOW = 50;
+    // Maior que qualquer avaliação, mas negável sem overflow (a quiescência é negamax)
+    private static final int INFINITY = 1_000_000;
 
-    // --- Valores das Peças para a Função de Avaliação ---
-    private static final int PAWN_VALUE = 100;   // [cite: 209]
-    private static final int KNIGHT_VALUE = 320; // [cite: 210]
-    private static final int BISHOP_VALUE = 330; // [cite: 211]
-    private static final int ROOK_VALUE = 500;   // [cite: 212]
-    private static final int QUEEN_VALUE = 900;  // [cite: 213]
-    private static final int KING_VALUE = 20000; // [cite: 214]
+    // Busca seletiva (cada uma pode ser desligada; ver os setters)
+    // Lance nulo: só com profundidade restante suficiente; redução 2, ou 3 longe das folhas
+    private static final int NULL_MOVE_MIN_DEPTH = 2;
+    private static final int NULL_MOVE_DEEP = 6;
+    // LMR: só lances quietos tardios, longe das folhas
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_INDEX = 3;
+    private static final int LMR_DEEP_INDEX = 6;
+    private static final int LMR_DEEP_DEPTH = 6;
+    // Futilidade: margens por profundidade restante (1..3) para a poda para frente e a reversa
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int[] FUTILITY_MARGIN = {0, 150, 300, 500};
+    private static final int REVERSE_FUTILITY_MARGIN = 120;
+    // Resultado de searchMove() para lance podado por futilidade (nunca é um score)
+    private static final int PRUNED = Integer.MIN_VALUE;
+
+    // Tabela de transposição (em MB); guarda resultados por chave Zobrist entre ramos e entre buscas
+    private static final int TT_SIZE_MB = 32;
+    private final TranspositionTable tt;
+    private final MoveOrdering ordering = new MoveOrdering();
+    // Avaliação com tabela de peões e cache de avaliação, própria desta busca
+    private final Evaluator evaluator = new Evaluator();
+    private final QuiessenciaAI quiescence = new QuiessenciaAI(ordering, evaluator);
+    // Um buffer de lances por ply, reutilizado: a busca não aloca para gerar lances
+    private final int[][] moveStack = new int[MoveOrdering.MAX_PLY + 1][Game.MAX_MOVES];
+
+    private final long moveTimeMillis;
+    private int maxDepth = MAX_DEPTH;
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    // Limite de nós por busca (0 = sem limite), conferido junto com o relógio
+    private long nodeLimit;
+    private SearchListener listener;
+    // Livro de aberturas consultado antes da busca (null = sem livro)
+    private OpeningBook book;
+    // Bitbases de finais consultadas em cada nó (null = sem bitbases)
+    private Bitbases bitbases;
+    // A raiz já está num final das bitbases: vitórias não cortam a busca (ver minimax)
+    private boolean rootInBitbase;
+
+    // Estado da busca em andamento
+    private TimeManager time;
+    private boolean aborted;
+    private long nodes;
+    private int rootBestMove;
+    // Resposta esperada ao lance escolhido (lance da tabela na posição seguinte), para o ponder
+    private Move ponderMove;
+    // Ponto de divisão acima da subárvore atual (só na busca paralela; null na serial)
+    private SplitPoint split;
+
+    // Contadores da busca: só a thread desta instância escreve; viram SearchStats no fim
+    private long ttProbes, ttHits, betaCutoffs, firstMoveCutoffs;
+    private final long[] iterationNodes = new long[MAX_DEPTH];
+    private final long[] iterationMillis = new long[MAX_DEPTH];
+    private SearchStats lastStats;
+    private SearchMonitor monitor;
+
+    public MinimaxAI() {
+        this(DEFAULT_MOVE_TIME_MS);
+    }
+
+    /** @param moveTimeMillis tempo de relógio disponível para cada lance. */
+    public MinimaxAI(long moveTimeMillis) {
+        this(moveTimeMillis, new TranspositionTable(TT_SIZE_MB));
+    }
+
+    /**
+     * @param moveTimeMillis tempo de relógio disponível para cada lance.
+     * @param tt tabela de transposição, possivelmente compartilhada com outras buscas (Lazy SMP).
+     */
+    public MinimaxAI(long moveTimeMillis, TranspositionTable tt) {
+        this.moveTimeMillis = moveTimeMillis;
+        this.tt = tt;
+    }
+
+    /** Limita a profundidade do aprofundamento iterativo (útil para buscas de profundidade fixa). */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+    }
+
+    /**
+     * Nova partida: limpa a tabela de transposição e a ordenação (killers, histórico,
+     * contra-lances), para que nada da partida anterior influencie as próximas buscas.
+     */
+    public void newGame() {
+        tt.clear();
+        ordering.clear();
+    }
+
+    /** Limita os nós de cada busca (0 = sem limite); a busca para como se o tempo acabasse. */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = Math.max(0, nodeLimit);
+    }
+
+    /** Poda de lance nulo (adaptativa, fora de xeque e só com peças além de peões). Ligada por padrão. */
+    public void setNullMovePruning(boolean enabled) {
+        this.nullMovePruning = enabled;
+    }
+
+    /** Reduções de lances tardios (LMR) pelo índice do lance e pelo histórico. Ligadas por padrão. */
+    public void setLateMoveReductions(boolean enabled) {
+        this.lateMoveReductions = enabled;
+    }
+
+    /** Poda de futilidade perto das folhas, para frente e reversa. Ligada por padrão. */
+    public void setFutilityPruning(boolean enabled) {
+        this.futilityPruning = enabled;
+    }
+
+    /** Recebe cada iteração completa (profundidade, score, nós, variante principal); null desliga. */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /** Publica o resumo de cada busca (findBestMove) no monitor JMX; null desliga. */
+    public void setSearchMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /** Resumo da última busca (null se ela saiu do livro). */
+    public SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+
+    /** Usa o livro nas posições que ele conhece; null desliga. */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /** Resolve na hora as posições dos finais cobertos pelas bitbases; null desliga. */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /** Resposta do adversário que a última busca espera (null se não houver), para pondering. */
+    public Move getPonderMove() {
+        return ponderMove;
+    }
+
+    /** Nós visitados na última busca. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Taxa de acerto da tabela de peões na última busca. */
+    public double getPawnHashHitRate() {
+        return evaluator.pawnHitRate();
+    }
+
+    /** Taxa de acerto do cache de avaliação na última busca. */
+    public double getEvalCacheHitRate() {
+        return evaluator.evalCacheHitRate();
+    }
 
     /**
-     * Ponto de entrada da IA. Encontra o melhor movimento possível.
+     * Ponto de entrada da IA. Encontra o melhor movimento possível dentro do tempo por lance.
      */
     public Move findBestMove(Game game) {
-        Move bestMove = null;
-        int bestValue = Integer.MIN_VALUE; // Começamos com o pior valor possível para o jogador maximizador (Pretas)
-
-        for (Move move : getAllPossibleMoves(game)) {
-            // Cria um "clone" do jogo para simular o movimento
-            Game tempGame = game.snapshot();
-            tempGame.move(move.getFrom(), move.getTo(), move.getPromotion());
-
-            // Chama o minimax para avaliar a posição após este movimento
-            int moveValue = minimax(tempGame, SEARCH_DEPTH - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
-
-            // O jogador Preto (minimizador) quer o menor valor, mas como a primeira chamada é feita
-            // a partir daqui, invertemos a lógica para encontrar o "melhor" movimento para as pretas.
-            // Para simplificar, vamos pensar que as Pretas também querem maximizar seu resultado negativo.
-            // No contexto do jogador atual (Pretas), um valor menor é melhor.
-            // No entanto, a implementação do minimax abaixo assume que o jogador inicial é o MAX.
-            // Para as pretas (MIN), queremos o menor valor. A lógica inicial precisa ser ajustada.
-            // Vamos refazer a lógica do findBestMove para o jogador MIN (Pretas).
-        }
-
-        // Lógica correta para o jogador Minimizador (Pretas)
-        int worstValue = Integer.MAX_VALUE;
-        for (Move move : getAllPossibleMoves(game)) {
-            Game tempGame = game.snapshot();
-            tempGame.move(move.getFrom(), move.getTo(), move.getPromotion());
-
-            // A vez agora é do jogador Maximizador (Brancas)
-            int moveValue = minimax(tempGame, SEARCH_DEPTH - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
-
-            if (moveValue < worstValue) {
-                worstValue = moveValue;
-                bestMove = move;
+        return findBestMove(game, TimeManager.forMoveTime(moveTimeMillis));
+    }
+
+    /**
+     * Aprofundamento iterativo: busca com profundidade 1, 2, 3... até o prazo, e devolve o
+     * melhor lance da última iteração completa. A partir da 3ª iteração a raiz usa uma janela
+     * de aspiração em torno do score anterior, reabrindo o lado que falhar.
+     * Posições do livro de aberturas são respondidas direto, sem busca.
+     */
+    public Move findBestMove(Game game, TimeManager time) {
+        if (book != null) {
+            int bookMove = book.probe(game);
+            if (bookMove != 0) {
+                ponderMove = null;
+                lastStats = null;
+                return game.toMove(bookMove);
             }
         }
+        tt.newSearch();
+        // Uma única cópia por busca; daqui para baixo tudo é makeMove/unmakeMove nesta cópia
+        Move best = iterativeDeepening(game.snapshot(), time, 1);
+        if (monitor != null) monitor.record(lastStats);
+        return best;
+    }
 
-        return bestMove;
+    /**
+     * Laço do aprofundamento iterativo a partir de 'firstDepth', sobre uma cópia exclusiva do
+     * jogo. Não avança a idade da tabela: numa busca compartilhada (Lazy SMP) quem faz isso é
+     * o coordenador.
+     */
+    Move iterativeDeepening(Game game, TimeManager time, int firstDepth) {
+        resetSearchState();
+        this.time = time;
+        this.aborted = false;
+        this.split = null;
+        this.rootInBitbase = bitbases != null && bitbases.probe(game) != Bitbases.UNKNOWN;
+        this.ponderMove = null;
+
+        int[] rootMoves = moveStack[0];
+        int rootCount = game.generateMoves(rootMoves, 0);
+        if (rootCount == 0) {
+            lastStats = searchStats(0);
+            return null;
+        }
+        ordering.order(game, rootMoves, rootCount, TranspositionTable.move(tt.probe(game.zobristKey())), 0);
+        int bestMove = rootMoves[0];
+        int score = 0;
+        int completedDepth = 0;
+
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            if (depth > firstDepth && !time.canStartIteration()) break;
+            long nodesBefore = nodes;
+            long millisBefore = time.elapsedMillis();
+
+            int alpha = -INFINITY, beta = INFINITY;
+            if (depth >= 3) {
+                alpha = score - ASPIRATION_WINDOW;
+                beta = score + ASPIRATION_WINDOW;
+            }
+            int value;
+            while (true) {
+                value = searchRoot(game, rootMoves, rootCount, depth, alpha, beta);
+                if (aborted) break;
+                if (value <= alpha) alpha = -INFINITY;      // falhou baixo: reabre embaixo
+                else if (value >= beta) beta = INFINITY;   // falhou alto: reabre em cima
+                else break;
+            }
+            if (aborted) break; // iteração incompleta não é confiável
+
+            score = value;
+            bestMove = rootBestMove;
+            completedDepth = depth;
+            iterationNodes[depth - 1] = nodes - nodesBefore;
+            iterationMillis[depth - 1] = time.elapsedMillis() - millisBefore;
+            // O melhor lance abre a próxima iteração
+            int i = 0;
+            while (rootMoves[i] != bestMove) i++;
+            System.arraycopy(rootMoves, 0, rootMoves, 1, i);
+            rootMoves[0] = bestMove;
+            if (listener != null) {
+                listener.iterationFinished(depth, game.whiteToMove() ? score : -score, nodes,
+                        time.elapsedMillis(), principalVariation(game, bestMove, depth));
+            }
+        }
+        ponderMove = expectedReply(game, bestMove);
+        lastStats = searchStats(completedDepth);
+        return game.toMove(bestMove);
+    }
+
+    private SearchStats searchStats(int completedDepth) {
+        return new SearchStats(completedDepth, nodes, quiescence.getNodes(), time.elapsedMillis(),
+                ttProbes, ttHits, betaCutoffs, firstMoveCutoffs,
+                evaluator.pawnHitRate(), evaluator.evalCacheHitRate(),
+                Arrays.copyOf(iterationNodes, completedDepth), Arrays.copyOf(iterationMillis, completedDepth));
+    }
+
+    /**
+     * Variante principal reconstruída pela tabela de transposição: o melhor lance da raiz e,
+     * depois dele, o lance guardado em cada posição, enquanto for legal e não repetir posição.
+     */
+    private int[] principalVariation(Game game, int bestMove, int maxLength) {
+        int[] line = new int[maxLength];
+        int length = 0;
+        int move = bestMove;
+        while (move != 0 && length < maxLength) {
+            line[length++] = move;
+            game.makeMove(move);
+            if (game.isRepetition()) break;
+            int key = TranspositionTable.move(tt.probe(game.zobristKey()));
+            move = 0;
+            if (key != 0) {
+                int[] replies = moveStack[Math.min(length, MoveOrdering.MAX_PLY)];
+                int count = game.generateMoves(replies, 0);
+                for (int i = 0; i < count; i++) {
+                    if (PackedMove.key(replies[i]) == key) move = replies[i];
+                }
+            }
+        }
+        for (int i = 0; i < length; i++) game.unmakeMove();
+        return Arrays.copyOf(line, length);
+    }
+
+    /** Lance legal guardado na tabela para a posição depois de 'move', ou null. */
+    private Move expectedReply(Game game, int move) {
+        game.makeMove(move);
+        int key = TranspositionTable.move(tt.probe(game.zobristKey()));
+        Move reply = null;
+        if (key != 0) {
+            int[] replies = moveStack[1];
+            int count = game.generateMoves(replies, 0);
+            for (int i = 0; i < count && reply == null; i++) {
+                if (PackedMove.key(replies[i]) == key) reply = game.toMove(replies[i]);
+            }
+        }
+        game.unmakeMove();
+        return reply;
+    }
+
+    /** Uma iteração na raiz: Brancas maximizam, Pretas minimizam. Guarda o melhor lance em rootBestMove. */
+    private int searchRoot(Game game, int[] moves, int count, int depth, int alpha, int beta) {
+        boolean maximizing = game.whiteToMove();
+        int best = maximizing ? -INFINITY : INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            game.makeMove(move);
+            int eval = minimax(game, depth - 1, 1, alpha, beta, !maximizing, true);
+            game.unmakeMove();
+            if (aborted) return best;
+
+            if (maximizing ? eval > best : eval < best) {
+                best = eval;
+                rootBestMove = move;
+            }
+            if (maximizing) alpha = Math.max(alpha, eval);
+            else beta = Math.min(beta, eval);
+            if (beta <= alpha) break;
+        }
+        return best;
+    }
+
+    // ==== ganchos para a busca paralela por divisão (ParallelMinimaxAI) ====
+
+    /** Zera contadores e killers antes de uma nova busca. */
+    void resetSearchState() {
+        ordering.newSearch();
+        nodes = 0;
+        quiescence.resetNodes();
+        evaluator.resetStats();
+        ttProbes = ttHits = betaCutoffs = firstMoveCutoffs = 0;
+        Arrays.fill(iterationNodes, 0);
+        Arrays.fill(iterationMillis, 0);
+    }
+
+    /** Contadores desta instância desde resetSearchState(), sem profundidade nem iterações. */
+    SearchStats counters() {
+        return new SearchStats(0, nodes, quiescence.getNodes(), 0, ttProbes, ttHits, betaCutoffs,
+                firstMoveCutoffs, evaluator.pawnHitRate(), evaluator.evalCacheHitRate(), new long[0], new long[0]);
+    }
+
+    /**
+     * Busca serial de uma subárvore com a janela dada. Aborta pelo prazo ou quando algum
+     * ponto de divisão acima dela for cancelado por corte de um irmão.
+     */
+    int searchSubtree(Game game, int depth, int ply, int alpha, int beta, TimeManager time, SplitPoint split) {
+        this.time = time;
+        this.split = split;
+        this.aborted = false;
+        return minimax(game, depth, ply, alpha, beta, game.whiteToMove(), true);
+    }
+
+    /** Para searchSubtree(): se a raiz da busca que a chama já está num final das bitbases. */
+    void setRootInBitbase(boolean rootInBitbase) {
+        this.rootInBitbase = rootInBitbase;
+    }
+
+    /** Verdadeiro se a última searchSubtree() foi interrompida (resultado inválido). */
+    boolean wasAborted() {
+        return aborted;
+    }
+
+    void orderMoves(Game game, int[] moves, int count, int hashMove, int ply) {
+        ordering.order(game, moves, count, hashMove, ply);
+    }
+
+    void recordCutoff(Game game, int[] moves, int cutIndex, int depth, int ply) {
+        countCutoff(cutIndex);
+        ordering.onCutoff(game, moves, cutIndex, depth, ply);
     }
 
     /**
      * Implementação do algoritmo Minimax com poda Alfa-Beta.
-     * @param game O estado atual do jogo.
+     * @param game O estado atual do jogo (lances são feitos e desfeitos nele mesmo).
      * @param depth A profundidade restante da busca.
+     * @param ply Distância até a raiz (índice das tabelas de killers).
      * @param alpha O melhor valor para o maximizador até agora.
      * @param beta O melhor valor para o minimizador até agora.
      * @param isMaximizingPlayer True se for a vez das Brancas (maximizador), False para as Pretas (minimizador).
+     * @param allowNull Falso logo depois de um lance nulo (dois seguidos não provam nada).
      * @return A avaliação da posição.
      */
-    private int minimax(Game game, int depth, int alpha, int beta, boolean isMaximizingPlayer) {
-        if (depth == 0 || game.isGameOver()) {
-            return evaluateBoard(game.board());
+    private int minimax(Game game, int depth, int ply, int alpha, int beta, boolean isMaximizingPlayer,
+                        boolean allowNull) {
+        // Confere o relógio, o limite de nós e cortes vindos de irmãos em outras threads a cada 1024 nós
+        if ((++nodes & 1023) == 0 && (time.shouldStop() || (split != null && split.isCancelled())
+                || (nodeLimit > 0 && nodes >= nodeLimit))) {
+            aborted = true;
         }
+        if (aborted) return 0;
 
+        if (game.isGameOver() || ply >= MoveOrdering.MAX_PLY) {
+            return evaluator.evaluate(game);
+        }
+        // Posição repetida dentro da linha: empate, não vale gastar busca nela
+        if (game.isRepetition()) {
+            return 0;
+        }
+        // Final coberto pelas bitbases: empate é exato e corta na hora; vitória também, a não
+        // ser que a raiz já esteja no final (aí todos os nós são vitória, e só a busca mostra
+        // qual lance avança para o mate)
+        if (bitbases != null) {
+            int known = bitbases.probe(game);
+            if (known == 0 || (known != Bitbases.UNKNOWN && !rootInBitbase)) return known;
+        }
+        if (depth == 0) {
+            // Folha: resolve as trocas pendentes antes de avaliar
+            return game.whiteToMove()
+                    ? quiescence.search(game, alpha, beta, ply)
+                    : -quiescence.search(game, -beta, -alpha, ply);
+        }
+
+        // Consulta a tabela de transposição: corta direto ou ao menos aperta a janela
+        long key = game.zobristKey();
+        long entry = tt.probe(key);
+        int hashMove = 0;
+        ttProbes++;
+        if (entry != 0) {
+            ttHits++;
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.BOUND_EXACT -> { return score; }
+                    case TranspositionTable.BOUND_LOWER -> alpha = Math.max(alpha, score);
+                    case TranspositionTable.BOUND_UPPER -> beta = Math.min(beta, score);
+                }
+                if (beta <= alpha) return score;
+            }
+        }
+
+        // Podas pela avaliação estática: fora de xeque e longe de scores de mate
+        boolean inCheck = game.inCheck(game.whiteToMove());
+        boolean selective = !inCheck && Math.abs(alpha) < Evaluation.MATE_BOUND && Math.abs(beta) < Evaluation.MATE_BOUND;
+        int staticEval = selective && (futilityPruning || nullMovePruning) ? evaluator.evaluate(game) : 0;
+
+        // Futilidade reversa: mesmo perdendo a margem, a posição já passa do limite
+        if (futilityPruning && selective && depth <= FUTILITY_DEPTH) {
+            int margin = REVERSE_FUTILITY_MARGIN * depth;
+            if (isMaximizingPlayer ? staticEval - margin >= beta : staticEval + margin <= alpha) {
+                return isMaximizingPlayer ? staticEval - margin : staticEval + margin;
+            }
+        }
+
+        // Lance nulo: se passar a vez ainda corta, um lance de verdade cortaria também. Não vale
+        // em zugzwang, então exige peças além de peões e a avaliação já do lado do corte
+        if (nullMovePruning && allowNull && selective && depth >= NULL_MOVE_MIN_DEPTH
+                && (isMaximizingPlayer ? staticEval >= beta : staticEval <= alpha)
+                && hasNonPawnMaterial(game.board(), game.whiteToMove())) {
+            int reduced = Math.max(0, depth - 1 - (depth > NULL_MOVE_DEEP ? 3 : 2));
+            game.makeNullMove();
+            int eval = isMaximizingPlayer
+                    ? minimax(game, reduced, ply + 1, beta - 1, beta, false, false)
+                    : minimax(game, reduced, ply + 1, alpha, alpha + 1, true, false);
+            game.unmakeNullMove();
+            if (aborted) return 0;
+            if (isMaximizingPlayer ? eval >= beta : eval <= alpha) return isMaximizingPlayer ? beta : alpha;
+        }
+
+        // Futilidade para frente: perto das folhas, lances quietos que não dão xeque não salvam
+        // uma posição que nem com a margem alcança a janela
+        boolean futile = false;
+        int futilityValue = 0;
+        if (futilityPruning && selective && depth <= FUTILITY_DEPTH) {
+            futilityValue = isMaximizingPlayer ? staticEval + FUTILITY_MARGIN[depth] : staticEval - FUTILITY_MARGIN[depth];
+            futile = isMaximizingPlayer ? futilityValue <= alpha : futilityValue >= beta;
+        }
+
+        int[] moves = moveStack[ply];
+        int count = game.generateMoves(moves, 0);
+        if (count == 0) {
+            // Sem lances legais: mate (ruim para quem joga) ou afogamento (empate)
+            if (!game.inCheck(game.whiteToMove())) return 0;
+            return isMaximizingPlayer ? Evaluation.matedIn(ply) : -Evaluation.matedIn(ply);
+        }
+        // Lance da tabela primeiro, depois capturas, killers, contra-lance e histórico
+        ordering.order(game, moves, count, hashMove, ply);
+
+        int alphaOrig = alpha, betaOrig = beta;
+        int best;
+        int bestMove = 0;
         if (isMaximizingPlayer) {
-            int maxEval = Integer.MIN_VALUE;
-            for (Move move : getAllPossibleMoves(game)) {
-                Game tempGame = game.snapshot();
-                tempGame.move(move.getFrom(), move.getTo(), move.getPromotion());
-                int eval = minimax(tempGame, depth - 1, alpha, beta, false);
-                maxEval = Math.max(maxEval, eval);
+            int maxEval = -INFINITY;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                int eval = searchMove(game, move, i, depth, ply, alpha, beta, true, inCheck, futile);
+                if (aborted) return 0;
+                if (eval == PRUNED) {
+                    maxEval = Math.max(maxEval, futilityValue);
+                    continue;
+                }
+                if (eval > maxEval) {
+                    maxEval = eval;
+                    bestMove = move;
+                }
                 alpha = Math.max(alpha, eval);
                 if (beta <= alpha) { // Poda Alfa-Beta [cite: 435]
+                    countCutoff(i);
+                    ordering.onCutoff(game, moves, i, depth, ply);
                     break;
                 }
             }
-            return maxEval;
+            best = maxEval;
         } else { // Minimizador
-            int minEval = Integer.MAX_VALUE;
-            for (Move move : getAllPossibleMoves(game)) {
-                Game tempGame = game.snapshot();
-                tempGame.move(move.getFrom(), move.getTo(), move.getPromotion());
-                int eval = minimax(tempGame, depth - 1, alpha, beta, true);
-                minEval = Math.min(minEval, eval);
+            int minEval = INFINITY;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                int eval = searchMove(game, move, i, depth, ply, alpha, beta, false, inCheck, futile);
+                if (aborted) return 0;
+                if (eval == PRUNED) {
+                    minEval = Math.min(minEval, futilityValue);
+                    continue;
+                }
+                if (eval < minEval) {
+                    minEval = eval;
+                    bestMove = move;
+                }
                 beta = Math.min(beta, eval);
                 if (beta <= alpha) { // Poda Alfa-Beta [cite: 445]
+                    countCutoff(i);
+                    ordering.onCutoff(game, moves, i, depth, ply);
                     break;
                 }
             }
-            return minEval;
+            best = minEval;
         }
+
+        // Fora da janela original o valor é só um limite
+        int bound = best <= alphaOrig ? TranspositionTable.BOUND_UPPER
+                : best >= betaOrig ? TranspositionTable.BOUND_LOWER
+                : TranspositionTable.BOUND_EXACT;
+        tt.store(key, depth, bound, TranspositionTable.scoreToTable(best, ply), bestMove);
+        return best;
     }
 
     /**
-     * Avalia a posição atual do tabuleiro com base no material.
-     * Pontuação positiva favorece as Brancas, negativa favorece as Pretas. [cite: 245]
-     * @param board O tabuleiro a ser avaliado.
-     * @return A pontuação da posição.
+     * Busca moves[index] de um nó com a janela do nó, aplicando as reduções: devolve o score
+     * do lance ou PRUNED se ele foi podado por futilidade. O primeiro lance, capturas,
+     * promoções, lances com o rei em xeque e lances que dão xeque nunca são podados nem reduzidos.
      */
-    private int evaluateBoard(Board board) {
-        int score = 0;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = board.get(new Position(r, c));
-                if (piece != null) {
-                    score += getPieceValue(piece);
-                }
+    private int searchMove(Game game, int move, int index, int depth, int ply, int alpha, int beta,
+                           boolean maximizing, boolean inCheck, boolean futile) {
+        boolean late = index > 0 && !inCheck && PackedMove.isQuiet(move);
+        boolean reducible = late && lateMoveReductions && depth >= LMR_MIN_DEPTH && index >= LMR_MIN_INDEX;
+        int history = reducible ? ordering.historyScore(game.whiteToMove(), move) : 0;
+
+        game.makeMove(move);
+        boolean givesCheck = (futile || reducible) && late && game.inCheck(game.whiteToMove());
+        if (futile && late && !givesCheck) {
+            game.unmakeMove();
+            return PRUNED;
+        }
+        int eval;
+        int reduction = reducible && !givesCheck ? lateMoveReduction(depth, index, history) : 0;
+        if (reduction > 0) {
+            eval = minimax(game, depth - 1 - reduction, ply + 1, alpha, beta, !maximizing, true);
+            // Reduzido e mesmo assim melhorou a janela: confirma na profundidade cheia
+            if (!aborted && (maximizing ? eval > alpha : eval < beta)) {
+                eval = minimax(game, depth - 1, ply + 1, alpha, beta, !maximizing, true);
             }
+        } else {
+            eval = minimax(game, depth - 1, ply + 1, alpha, beta, !maximizing, true);
         }
-        return score;
+        game.unmakeMove();
+        return eval;
     }
 
-    /**
-     * Retorna o valor de uma peça. Peças brancas têm valor positivo, pretas têm negativo.
-     */
-    private int getPieceValue(Piece piece) {
-        int value = 0;
-        if (piece instanceof Pawn) value = PAWN_VALUE;
-        else if (piece instanceof Knight) value = KNIGHT_VALUE;
-        else if (piece instanceof Bishop) value = BISHOP_VALUE;
-        else if (piece instanceof Rook) value = ROOK_VALUE;
-        else if (piece instanceof Queen) value = QUEEN_VALUE;
-        else if (piece instanceof King) value = KING_VALUE;
+    /** 1 ply para lances tardios, 2 para os muito tardios longe das folhas; histórico bom reduz 1 a menos. */
+    private static int lateMoveReduction(int depth, int index, int history) {
+        int r = index >= LMR_DEEP_INDEX && depth >= LMR_DEEP_DEPTH ? 2 : 1;
+        if (history > 0) r--;
+        return Math.min(r, depth - 2);
+    }
 
-        return piece.isWhite() ? value : -value;
+    /** O lado tem alguma peça além de rei e peões (sem isso, zugzwang é comum demais para o lance nulo). */
+    private static boolean hasNonPawnMaterial(BitBoard board, boolean white) {
+        return (board.bitboard(Piece.KNIGHT, white) | board.bitboard(Piece.BISHOP, white)
+                | board.bitboard(Piece.ROOK, white) | board.bitboard(Piece.QUEEN, white)) != 0;
     }
 
-    /**
-     * Gera uma lista de todos os movimentos legais para o jogador da vez.
-     */
-    private List<Move> getAllPossibleMoves(Game game) {
-        List<Move> allMoves = new ArrayList<>();
-        Board board = game.board();
-        boolean isWhiteTurn = game.whiteToMove();
-
-        for (Piece piece : board.pieces(isWhiteTurn)) {
-            Position from = piece.getPosition();
-            for (Position to : game.legalMovesFrom(from)) {
-                allMoves.add(new Move(from, to, piece, board.get(to), false, false, false, null));
-            }
-        }
-        return allMoves;
+    private void countCutoff(int moveIndex) {
+        betaCutoffs++;
+        if (moveIndex == 0) firstMoveCutoffs++;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package ai;
+
+import controller.Game;
+import model.board.BitBoard;
+import model.board.PackedMove;
+import model.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Ordenação de lances para a poda alfa-beta. Cada busca (thread) deve ter a sua instância.
+ *
+ * Ordem: lance da tabela de transposição, capturas/promoções por MVV-LVA (vítima mais
+ * valiosa, atacante menos valioso), os dois killers do ply, o contra-lance do lance anterior
+ * e, por fim, os lances quietos pelo histórico (butterfly [cor][origem][destino]).
+ */
+public class MoveOrdering {
+
+    public static final int MAX_PLY = 128;
+
+    private static final int HASH_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 500_000;
+    private static final int KILLER_1_SCORE = 400_002;
+    private static final int KILLER_2_SCORE = 400_001;
+    private static final int COUNTER_MOVE_SCORE = 400_000;
+    // Teto do histórico, abaixo de todas as categorias acima
+    private static final int HISTORY_MAX = 100_000;
+
+    // Dois killers por ply (lances quietos que causaram corte em nós irmãos); guardam PackedMove.key()
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Histórico butterfly: [cor 0 = brancas][origem][destino]
+    private final int[][][] history = new int[2][64][64];
+    // Contra-lance: [peça que jogou por último][casa onde ela chegou] -> lance que refutou
+    private final int[][] counterMoves = new int[12][64];
+    // Rascunho de order(); não é reentrante, mas a ordenação termina antes de descer na árvore
+    private final int[] scores = new int[Game.MAX_MOVES];
+
+    /** Prepara uma nova busca: zera killers e reduz o histórico pela metade. */
+    public void newSearch() {
+        for (int[] k : killers) { k[0] = 0; k[1] = 0; }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) from[to] /= 2;
+            }
+        }
+    }
+
+    /** Esquece tudo o que as buscas anteriores aprenderam (nova partida). */
+    public void clear() {
+        for (int[] k : killers) { k[0] = 0; k[1] = 0; }
+        for (int[][] side : history) {
+            for (int[] from : side) Arrays.fill(from, 0);
+        }
+        for (int[] c : counterMoves) Arrays.fill(c, 0);
+    }
+
+    /**
+     * Ordena moves[0..count) (PackedMove, do melhor para o pior) segundo as heurísticas acima.
+     * 'hashMove' é a chave (PackedMove.key) do lance da tabela, ou 0.
+     */
+    public void order(Game game, int[] moves, int count, int hashMove, int ply) {
+        BitBoard board = game.board();
+        int counter = counterMoveFor(game);
+        int side = game.whiteToMove() ? 0 : 1;
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(board, moves[i], hashMove, ply, counter, side);
+        }
+        // inserção: listas curtas e quase ordenadas
+        for (int i = 1; i < count; i++) {
+            int m = moves[i];
+            int s = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < s) {
+                scores[j + 1] = scores[j];
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            scores[j + 1] = s;
+            moves[j + 1] = m;
+        }
+    }
+
+    /**
+     * Registra um corte beta causado por moves[cutIndex]: se for quieto, vira killer,
+     * contra-lance e ganha histórico; os quietos tentados antes dele perdem histórico.
+     * Chamado com o lance já desfeito (tabuleiro do nó).
+     */
+    public void onCutoff(Game game, int[] moves, int cutIndex, int depth, int ply) {
+        int cutMove = moves[cutIndex];
+        if (!PackedMove.isQuiet(cutMove)) return;
+        int key = PackedMove.key(cutMove);
+        int side = game.whiteToMove() ? 0 : 1;
+
+        if (ply < MAX_PLY && killers[ply][0] != key) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = key;
+        }
+        int prevTo = game.lastMoveTarget();
+        if (prevTo >= 0) {
+            counterMoves[game.board().pieceAt(prevTo).getIndex()][prevTo] = key;
+        }
+
+        int bonus = Math.min(depth * depth, 400);
+        updateHistory(side, key, bonus);
+        for (int i = 0; i < cutIndex; i++) {
+            if (PackedMove.isQuiet(moves[i])) updateHistory(side, PackedMove.key(moves[i]), -bonus);
+        }
+    }
+
+    /** Pontos de histórico de um lance quieto do lado dado (positivo = costuma causar cortes). */
+    public int historyScore(boolean white, int move) {
+        int key = PackedMove.key(move);
+        return history[white ? 0 : 1][key & 63][(key >>> 6) & 63];
+    }
+
+    private int score(BitBoard board, int move, int hashMove, int ply, int counter, int side) {
+        int key = PackedMove.key(move);
+        if (key == hashMove) return HASH_MOVE_SCORE;
+        if (!PackedMove.isQuiet(move)) {
+            // en passant: a vítima é um peão fora da casa de destino
+            int victim = !PackedMove.isCapture(move) ? 0
+                    : PackedMove.isEnPassant(move) ? Piece.PAWN + 1
+                    : board.pieceAt(PackedMove.to(move)).getType() + 1;
+            int attacker = board.pieceAt(PackedMove.from(move)).getType();
+            return CAPTURE_SCORE + victim * 64 + PackedMove.promotion(move) * 8 + (Piece.KING - attacker);
+        }
+        if (ply < MAX_PLY) {
+            if (key == killers[ply][0]) return KILLER_1_SCORE;
+            if (key == killers[ply][1]) return KILLER_2_SCORE;
+        }
+        if (key == counter) return COUNTER_MOVE_SCORE;
+        return history[side][key & 63][(key >>> 6) & 63];
+    }
+
+    private int counterMoveFor(Game game) {
+        int prevTo = game.lastMoveTarget();
+        if (prevTo < 0) return 0;
+        return counterMoves[game.board().pieceAt(prevTo).getIndex()][prevTo];
+    }
+
+    /** Atualização com "gravidade": o valor satura em ±HISTORY_MAX em vez de crescer sem limite. */
+    private void updateHistory(int side, int key, int bonus) {
+        int[] row = history[side][key & 63];
+        int to = (key >>> 6) & 63;
+        row[to] += bonus - row[to] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+}
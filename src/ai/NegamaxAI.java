@@ -1,5 +1,280 @@
 package ai;
 
+import controller.Game;
+import model.board.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor Negamax com Principal Variation Search (PVS).
+ *
+ * Em vez de ramos separados de max/min, todo score é do ponto de vista de quem joga e é
+ * negado a cada nível. O primeiro lance de cada nó é buscado com a janela cheia; os demais
+ * com janela nula (alpha, alpha+1), só para provar que não são melhores, e são rebuscados
+ * com a janela cheia quando a prova falha. A variante principal fica numa tabela triangular.
+ *
+ * Mesma interface de MinimaxAI: findBestMove(Game).
+ */
 public class NegamaxAI {
-    // codigo aqui
+
+    private static final int MAX_PLY = MoveOrdering.MAX_PLY;
+    private static final int MAX_DEPTH = 64;
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+    private static final int ASPIRATION_WINDOW = 50;
+    // Maior que qualquer avaliação, mas negável sem overflow
+    private static final int INFINITY = 1_000_000;
+
+    private static final int TT_SIZE_MB = 32;
+    private final TranspositionTable tt;
+    private final MoveOrdering ordering = new MoveOrdering();
+    // Avaliação com tabela de peões e cache de avaliação, própria desta busca
+    private final Evaluator evaluator = new Evaluator();
+    private final QuiessenciaAI quiescence = new QuiessenciaAI(ordering, evaluator);
+    // Um buffer de lances por ply, reutilizado: a busca não aloca para gerar lances
+    private final int[][] moveStack = new int[MAX_PLY + 1][Game.MAX_MOVES];
+
+    // Tabela triangular: pv[ply] guarda a variante a partir daquele ply em pv[ply][ply..pvLength[ply]-1]
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private final long moveTimeMillis;
+    private int maxDepth = MAX_DEPTH;
+    // Limite de nós por busca (0 = sem limite), conferido junto com o relógio
+    private long nodeLimit;
+    // Bitbases de finais consultadas em cada nó (null = sem bitbases)
+    private Bitbases bitbases;
+    // A raiz já está num final das bitbases: vitórias não cortam a busca (ver negamax)
+    private boolean rootInBitbase;
+
+    // Estado da busca em andamento
+    private TimeManager time;
+    private boolean aborted;
+    private long nodes;
+    private final List<Move> principalVariation = new ArrayList<>();
+
+    public NegamaxAI() {
+        this(DEFAULT_MOVE_TIME_MS);
+    }
+
+    /** @param moveTimeMillis tempo de relógio disponível para cada lance. */
+    public NegamaxAI(long moveTimeMillis) {
+        this(moveTimeMillis, new TranspositionTable(TT_SIZE_MB));
+    }
+
+    /**
+     * @param moveTimeMillis tempo de relógio disponível para cada lance.
+     * @param tt tabela de transposição usada pelas buscas deste motor.
+     */
+    public NegamaxAI(long moveTimeMillis, TranspositionTable tt) {
+        this.moveTimeMillis = moveTimeMillis;
+        this.tt = tt;
+    }
+
+    /** Limita a profundidade do aprofundamento iterativo (útil para buscas de profundidade fixa). */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+    }
+
+    /**
+     * Nova partida: limpa a tabela de transposição e a ordenação (killers, histórico,
+     * contra-lances), para que nada da partida anterior influencie as próximas buscas.
+     */
+    public void newGame() {
+        tt.clear();
+        ordering.clear();
+    }
+
+    /** Limita os nós de cada busca (0 = sem limite); a busca para como se o tempo acabasse. */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = Math.max(0, nodeLimit);
+    }
+
+    /** Resolve na hora as posições dos finais cobertos pelas bitbases; null desliga. */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /** Nós visitados na última busca. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Taxa de acerto da tabela de peões na última busca. */
+    public double getPawnHashHitRate() {
+        return evaluator.pawnHitRate();
+    }
+
+    /** Taxa de acerto do cache de avaliação na última busca. */
+    public double getEvalCacheHitRate() {
+        return evaluator.evalCacheHitRate();
+    }
+
+    /** Variante principal da última iteração completa. */
+    public List<Move> getPrincipalVariation() {
+        return new ArrayList<>(principalVariation);
+    }
+
+    /**
+     * Ponto de entrada da IA. Encontra o melhor movimento possível dentro do tempo por lance.
+     */
+    public Move findBestMove(Game game) {
+        return findBestMove(game, TimeManager.forMoveTime(moveTimeMillis));
+    }
+
+    /**
+     * Aprofundamento iterativo com janela de aspiração; devolve o primeiro lance da variante
+     * principal da última iteração completa.
+     */
+    public Move findBestMove(Game game, TimeManager time) {
+        game = game.snapshot();
+        tt.newSearch();
+        ordering.newSearch();
+        this.time = time;
+        this.aborted = false;
+        this.rootInBitbase = bitbases != null && bitbases.probe(game) != Bitbases.UNKNOWN;
+        this.nodes = 0;
+        quiescence.resetNodes();
+        evaluator.resetStats();
+        principalVariation.clear();
+
+        if (game.generateMoves(moveStack[0], 0) == 0) return null;
+        int bestMove = moveStack[0][0];
+        int score = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (depth > 1 && !time.canStartIteration()) break;
+
+            int alpha = -INFINITY, beta = INFINITY;
+            if (depth >= 3) {
+                alpha = score - ASPIRATION_WINDOW;
+                beta = score + ASPIRATION_WINDOW;
+            }
+            int value;
+            while (true) {
+                value = negamax(game, depth, 0, alpha, beta);
+                if (aborted) break;
+                if (value <= alpha) alpha = -INFINITY;
+                else if (value >= beta) beta = INFINITY;
+                else break;
+            }
+            if (aborted) break;
+
+            score = value;
+            if (pvLength[0] > 0) {
+                bestMove = pv[0][0];
+                savePrincipalVariation(game);
+            }
+        }
+        return game.toMove(bestMove);
+    }
+
+    /** Converte a variante da tabela em objetos Move, jogando-a na cópia e desfazendo em seguida. */
+    private void savePrincipalVariation(Game game) {
+        principalVariation.clear();
+        for (int i = 0; i < pvLength[0]; i++) {
+            principalVariation.add(game.toMove(pv[0][i]));
+            game.makeMove(pv[0][i]);
+        }
+        for (int i = 0; i < pvLength[0]; i++) game.unmakeMove();
+    }
+
+    private int negamax(Game game, int depth, int ply, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && (time.shouldStop() || (nodeLimit > 0 && nodes >= nodeLimit))) aborted = true;
+        if (aborted) return 0;
+
+        pvLength[ply] = ply;
+        if (game.isGameOver() || ply >= MAX_PLY) {
+            return evaluator.evaluateForSideToMove(game);
+        }
+        if (ply > 0 && game.isRepetition()) {
+            return 0;
+        }
+        // Final coberto pelas bitbases (score das Brancas): empate corta na hora; vitória só
+        // quando a busca entrou no final a partir da raiz (dentro dele, só a busca acha o mate)
+        if (ply > 0 && bitbases != null) {
+            int known = bitbases.probe(game);
+            if (known == 0 || (known != Bitbases.UNKNOWN && !rootInBitbase)) {
+                return game.whiteToMove() ? known : -known;
+            }
+        }
+        if (depth == 0) {
+            // Folha: resolve as trocas pendentes antes de avaliar
+            return quiescence.search(game, alpha, beta, ply);
+        }
+
+        // Nós PV (janela aberta) não cortam pela tabela, para não truncar a variante principal
+        boolean pvNode = beta - alpha > 1;
+        long key = game.zobristKey();
+        long entry = tt.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] moves = moveStack[ply];
+        int count = game.generateMoves(moves, 0);
+        if (count == 0) {
+            // Sem lances legais: mate ou afogamento
+            return game.inCheck(game.whiteToMove()) ? Evaluation.matedIn(ply) : 0;
+        }
+        ordering.order(game, moves, count, hashMove, ply);
+
+        int alphaOrig = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(game, depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                // Janela nula: só prova que o lance não supera alpha
+                score = -negamax(game, depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -negamax(game, depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.unmakeMove();
+            if (aborted) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.onCutoff(game, moves, i, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best <= alphaOrig ? TranspositionTable.BOUND_UPPER
+                : best >= beta ? TranspositionTable.BOUND_LOWER
+                : TranspositionTable.BOUND_EXACT;
+        tt.store(key, depth, bound, TranspositionTable.scoreToTable(best, ply), bestMove);
+        return best;
+    }
+
+    /** O lance vira cabeça da variante deste ply, seguido da variante do ply filho. */
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        for (int i = ply + 1; i < pvLength[ply + 1]; i++) {
+            pv[ply][i] = pv[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
 }
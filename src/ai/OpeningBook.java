@@ -0,0 +1,138 @@
+package ai;
+
+import controller.Game;
+import model.board.PackedMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Livro de aberturas em arquivo binário, lido direto do disco por um MappedByteBuffer:
+ * abrir não carrega nada no heap, e cada consulta é uma busca binária (microssegundos).
+ *
+ * Layout das entradas igual ao do Polyglot (16 bytes, big-endian, ordenadas pela chave sem
+ * sinal):
+ * <pre>
+ *   chave   8 bytes  chave Zobrist da posição (Game.zobristKey)
+ *   lance   2 bytes  destino coluna/fileira (bits 0-5), origem (6-11), promoção (12-14)
+ *   peso    2 bytes  frequência relativa do lance na posição
+ *   learn   4 bytes  não usado (0)
+ * </pre>
+ * Como no Polyglot, fileira 0 é a 1ª e o roque é gravado como o rei tomando a própria torre
+ * (e1h1, e1a1). As chaves são as do nosso Zobrist, não as do Polyglot: o formato é o mesmo,
+ * mas os livros são gerados por tools.BookBuilder.
+ */
+public final class OpeningBook {
+
+    public static final int ENTRY_SIZE = 16;
+
+    private final MappedByteBuffer data;
+    private final int entries;
+
+    private OpeningBook(MappedByteBuffer data) {
+        this.data = data;
+        this.entries = data.capacity() / ENTRY_SIZE;
+    }
+
+    /** Mapeia o arquivo do livro (somente leitura). */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois de fechar o canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * O livro do arquivo, ou null se ele não existir (jogar sem livro). Um arquivo que existe
+     * mas não pode ser lido sai como UncheckedIOException: quem chama decide como avisar.
+     */
+    public static OpeningBook openIfPresent(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Livro de aberturas ilegível: " + file, e);
+        }
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Um lance do livro para a posição, sorteado com probabilidade proporcional ao peso; NONE
+     * se a posição não estiver no livro. O lance devolvido é um dos lances legais do jogo.
+     */
+    public int probe(Game game) {
+        long key = game.zobristKey();
+        int first = firstIndexOf(key);
+        if (first < 0) return PackedMove.NONE;
+
+        int total = 0, last = first;
+        while (last < entries && keyAt(last) == key) total += weightAt(last++);
+        if (total == 0) return PackedMove.NONE;
+
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (int i = first; i < last; i++) {
+            pick -= weightAt(i);
+            if (pick < 0) return legalMove(game, moveAt(i));
+        }
+        return PackedMove.NONE;
+    }
+
+    /** Índice da primeira entrada com a chave (busca binária pela ordem sem sinal), ou -1. */
+    private int firstIndexOf(long key) {
+        int lo = 0, hi = entries;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo < entries && keyAt(lo) == key ? lo : -1;
+    }
+
+    private long keyAt(int i) {
+        return data.getLong(i * ENTRY_SIZE);
+    }
+
+    private int moveAt(int i) {
+        return data.getShort(i * ENTRY_SIZE + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int i) {
+        return data.getShort(i * ENTRY_SIZE + 10) & 0xFFFF;
+    }
+
+    /** O lance legal da posição correspondente ao lance do livro, ou NONE (livro de outra versão). */
+    private static int legalMove(Game game, int bookMove) {
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (encodeMove(moves[i]) == bookMove) return moves[i];
+        }
+        return PackedMove.NONE;
+    }
+
+    // ==== lance no formato do livro ====
+
+    /** Lance compactado no formato de 16 bits do livro (roque como rei tomando a torre). */
+    public static int encodeMove(int move) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        if (PackedMove.isCastle(move)) to = (to & ~7) | (to > from ? 7 : 0);
+        return bookSquare(to) | bookSquare(from) << 6 | PackedMove.promotion(move) << 12;
+    }
+
+    // Nossa casa (a8 = 0) para a do livro: coluna nos bits 0-2, fileira (1ª = 0) nos bits 3-5
+    private static int bookSquare(int sq) {
+        return (7 - (sq >>> 3)) << 3 | (sq & 7);
+    }
+}
@@ -0,0 +1,353 @@
+package ai;
+
+import controller.Game;
+import model.board.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Busca paralela por divisão de nós ("Young Brothers Wait") sobre MinimaxAI.
+ *
+ * Em cada nó com profundidade suficiente o primeiro lance (o "irmão mais velho") é buscado
+ * antes de qualquer paralelismo, para estabelecer um limite; só então os demais irmãos viram
+ * tarefas de um ForkJoinPool, que as distribui por roubo de trabalho. Os irmãos compartilham
+ * o limite do nó (alpha nos nós das Brancas, beta nos das Pretas) por um AtomicInteger e o
+ * leem ao começar; quem produz corte cancela o ponto de divisão, e todas as buscas abaixo dele
+ * param na próxima checagem. Cada thread do pool usa sua própria MinimaxAI (ordenação,
+ * killers, quiescência); a tabela de transposição é uma só.
+ *
+ * Mesma interface de MinimaxAI: findBestMove(Game).
+ */
+public class ParallelMinimaxAI {
+
+    private static final int MAX_DEPTH = 64;
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+    private static final int INFINITY = 1_000_000;
+    private static final int TT_SIZE_MB = 64;
+    // Abaixo desta profundidade restante a subárvore é pequena demais para valer tarefas
+    private static final int SPLIT_MIN_DEPTH = 3;
+    // Resultado de busca interrompida (fora do intervalo de qualquer score)
+    private static final int ABORTED = Integer.MIN_VALUE;
+
+    private final TranspositionTable tt = new TranspositionTable(TT_SIZE_MB);
+    private final ForkJoinPool pool;
+    private final long moveTimeMillis;
+    private int maxDepth = MAX_DEPTH;
+    // Busca seletiva das subárvores (ver MinimaxAI); aplicada a cada worker no começo da busca
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    // Bitbases consultadas pelos workers e pelos nós de divisão (null = sem bitbases)
+    private Bitbases bitbases;
+    // A raiz já está num final das bitbases: vitórias não cortam a busca (ver MinimaxAI)
+    private boolean rootInBitbase;
+
+    // Uma MinimaxAI por thread do pool; a fila guarda todas para zerar e somar os nós
+    private final Queue<MinimaxAI> allWorkers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<MinimaxAI> worker;
+
+    private TimeManager time;
+    private SearchStats lastStats;
+    private SearchMonitor monitor;
+
+    /** Uma thread por processador disponível. */
+    public ParallelMinimaxAI() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MOVE_TIME_MS);
+    }
+
+    /**
+     * @param threads paralelismo do ForkJoinPool.
+     * @param moveTimeMillis tempo de relógio disponível para cada lance.
+     */
+    public ParallelMinimaxAI(int threads, long moveTimeMillis) {
+        this.moveTimeMillis = moveTimeMillis;
+        this.pool = new ForkJoinPool(Math.max(1, threads), p -> {
+            var t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("ybwc-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.worker = ThreadLocal.withInitial(() -> {
+            MinimaxAI w = new MinimaxAI(moveTimeMillis, tt);
+            configure(w);
+            allWorkers.add(w);
+            return w;
+        });
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+    }
+
+    /** Resolve na hora as posições dos finais cobertos pelas bitbases; null desliga. */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    public void setNullMovePruning(boolean enabled) {
+        this.nullMovePruning = enabled;
+    }
+
+    public void setLateMoveReductions(boolean enabled) {
+        this.lateMoveReductions = enabled;
+    }
+
+    public void setFutilityPruning(boolean enabled) {
+        this.futilityPruning = enabled;
+    }
+
+    /** Nós visitados na última busca, somando todas as threads. */
+    public long getNodes() {
+        long total = 0;
+        for (MinimaxAI w : allWorkers) total += w.getNodes();
+        return total;
+    }
+
+    /** Publica o resumo de cada busca no monitor JMX; null desliga. */
+    public void setSearchMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /** Resumo da última busca, com os contadores de todas as threads somados. */
+    public SearchStats getLastSearchStats() {
+        return lastStats;
+    }
+
+    private void configure(MinimaxAI w) {
+        w.setNullMovePruning(nullMovePruning);
+        w.setLateMoveReductions(lateMoveReductions);
+        w.setFutilityPruning(futilityPruning);
+        w.setBitbases(bitbases);
+        w.setRootInBitbase(rootInBitbase);
+    }
+
+    public Move findBestMove(Game game) {
+        return findBestMove(game, TimeManager.forMoveTime(moveTimeMillis));
+    }
+
+    /**
+     * Aprofundamento iterativo; cada iteração é uma única tarefa raiz no pool, que se divide
+     * recursivamente. Sem janela de aspiração: a raiz já é o primeiro ponto de divisão.
+     */
+    public Move findBestMove(Game game, TimeManager time) {
+        Game root = game.snapshot();
+        tt.newSearch();
+        rootInBitbase = bitbases != null && bitbases.probe(root) != Bitbases.UNKNOWN;
+        for (MinimaxAI w : allWorkers) {
+            w.resetSearchState();
+            configure(w);
+        }
+        this.time = time;
+
+        int[] rootMoves = new int[Game.MAX_MOVES];
+        if (root.generateMoves(rootMoves, 0) == 0) return null;
+        int bestMove = 0;
+        long[] iterationNodes = new long[maxDepth];
+        long[] iterationMillis = new long[maxDepth];
+        int completedDepth = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (depth > 1 && !time.canStartIteration()) break;
+            long nodesBefore = getNodes();
+            long millisBefore = time.elapsedMillis();
+
+            int[] iterationBest = new int[1];
+            int d = depth;
+            int value = pool.invoke(ForkJoinTask.adapt(
+                    () -> search(root, d, 0, -INFINITY, INFINITY, null, iterationBest)));
+            if (value == ABORTED) break; // iteração incompleta não é confiável
+            bestMove = iterationBest[0];
+            completedDepth = depth;
+            iterationNodes[depth - 1] = getNodes() - nodesBefore;
+            iterationMillis[depth - 1] = time.elapsedMillis() - millisBefore;
+        }
+
+        // Contadores de cada thread, somados só agora que o pool terminou
+        SearchStats total = null;
+        for (MinimaxAI w : allWorkers) total = total == null ? w.counters() : total.merge(w.counters());
+        if (total != null) {
+            lastStats = total.withSearch(completedDepth, time.elapsedMillis(),
+                    Arrays.copyOf(iterationNodes, completedDepth), Arrays.copyOf(iterationMillis, completedDepth));
+            if (monitor != null) monitor.record(lastStats);
+        }
+        // Nem a profundidade 1 terminou: qualquer lance legal, como na busca serial
+        return root.toMove(bestMove != 0 ? bestMove : rootMoves[0]);
+    }
+
+    /** Encerra as threads do pool. */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Busca de um nó na thread do pool que a chamou. O jogo é exclusivo desta chamada;
+     * 'bestOut' (só na raiz) recebe o melhor lance.
+     */
+    private int search(Game game, int depth, int ply, int alpha, int beta, SplitPoint parent, int[] bestOut) {
+        MinimaxAI local = worker.get();
+        if (depth < SPLIT_MIN_DEPTH && bestOut == null) {
+            int value = local.searchSubtree(game, depth, ply, alpha, beta, time, parent);
+            return local.wasAborted() ? ABORTED : value;
+        }
+        if (time.shouldStop() || (parent != null && parent.isCancelled())) return ABORTED;
+
+        if (ply > 0 && game.isGameOver()) return Evaluation.evaluate(game);
+        if (ply > 0 && game.isRepetition()) return 0;
+        // Bitbases com a mesma regra da MinimaxAI: empate corta sempre, vitória só fora do final da raiz
+        if (ply > 0 && bitbases != null) {
+            int known = bitbases.probe(game);
+            if (known == 0 || (known != Bitbases.UNKNOWN && !rootInBitbase)) return known;
+        }
+
+        long key = game.zobristKey();
+        long entry = tt.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.BOUND_EXACT -> { return score; }
+                    case TranspositionTable.BOUND_LOWER -> alpha = Math.max(alpha, score);
+                    case TranspositionTable.BOUND_UPPER -> beta = Math.min(beta, score);
+                }
+                if (beta <= alpha) return score;
+            }
+        }
+
+        // Só nós com profundidade >= SPLIT_MIN_DEPTH chegam aqui: um buffer próprio por nó é barato
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        if (count == 0) {
+            if (!game.inCheck(game.whiteToMove())) return 0;
+            return game.whiteToMove() ? Evaluation.matedIn(ply) : -Evaluation.matedIn(ply);
+        }
+        local.orderMoves(game, moves, count, hashMove, ply);
+
+        boolean maximizing = game.whiteToMove();
+        int alphaOrig = alpha, betaOrig = beta;
+
+        // Irmão mais velho: sozinho, para que os demais já partam de um limite real
+        game.makeMove(moves[0]);
+        int best = search(game, depth - 1, ply + 1, alpha, beta, parent, null);
+        game.unmakeMove();
+        if (best == ABORTED) return ABORTED;
+        int bestIndex = 0;
+        if (maximizing) alpha = Math.max(alpha, best);
+        else beta = Math.min(beta, best);
+
+        if (beta > alpha && count > 1) {
+            SplitPoint split = new SplitPoint(parent);
+            AtomicInteger bound = new AtomicInteger(maximizing ? alpha : beta);
+            List<SiblingTask> siblings = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                siblings.add(new SiblingTask(game, moves[i], depth, ply, alpha, beta, maximizing, bound, split));
+            }
+            ForkJoinTask.invokeAll(siblings);
+
+            boolean incomplete = false;
+            // Score do lance escolhido; 'best' pode subir também com limites (fail-soft)
+            int chosen = best;
+            for (int i = 0; i < siblings.size(); i++) {
+                SiblingTask sibling = siblings.get(i);
+                int value = sibling.join();
+                if (value == ABORTED) {
+                    incomplete = true;
+                    continue;
+                }
+                if (maximizing ? value > best : value < best) best = value;
+                // Fora da janela que o irmão usou o valor é só um limite (ele não superou o que
+                // outro irmão já tinha): entra no score, mas não escolhe o lance, nem num empate
+                if (sibling.improved(value) && (maximizing ? value > chosen : value < chosen)) {
+                    chosen = value;
+                    bestIndex = i + 1;
+                }
+            }
+            if (maximizing) alpha = Math.max(alpha, best);
+            else beta = Math.min(beta, best);
+            // Irmãos interrompidos só são irrelevantes se outro irmão cortou
+            if (beta > alpha && incomplete) return ABORTED;
+            if (beta <= alpha) local.recordCutoff(game, moves, bestIndex, depth, ply);
+        } else if (beta <= alpha) {
+            local.recordCutoff(game, moves, 0, depth, ply);
+        }
+
+        int ttBound = best <= alphaOrig ? TranspositionTable.BOUND_UPPER
+                : best >= betaOrig ? TranspositionTable.BOUND_LOWER
+                : TranspositionTable.BOUND_EXACT;
+        tt.store(key, depth, ttBound, TranspositionTable.scoreToTable(best, ply), moves[bestIndex]);
+        if (bestOut != null) bestOut[0] = moves[bestIndex];
+        return best;
+    }
+
+    /** Um irmão mais novo de um ponto de divisão, buscado numa cópia própria do jogo. */
+    private final class SiblingTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Game parentGame;
+        private final int move;
+        private final int depth, ply, alpha, beta;
+        private final boolean maximizing;
+        private final AtomicInteger bound;
+        private final SplitPoint split;
+        // Janela com que o irmão foi de fato buscado (lida depois do join)
+        private int searchedAlpha, searchedBeta;
+
+        SiblingTask(Game parentGame, int move, int depth, int ply, int alpha, int beta,
+                    boolean maximizing, AtomicInteger bound, SplitPoint split) {
+            this.parentGame = parentGame;
+            this.move = move;
+            this.depth = depth;
+            this.ply = ply;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.maximizing = maximizing;
+            this.bound = bound;
+            this.split = split;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (split.isCancelled()) return ABORTED;
+            // Janela apertada pelo que os irmãos já encontraram
+            int a = maximizing ? Math.max(alpha, bound.get()) : alpha;
+            int b = maximizing ? beta : Math.min(beta, bound.get());
+            searchedAlpha = a;
+            searchedBeta = b;
+            Game game = snapshotOf(parentGame, move);
+            int value = search(game, depth - 1, ply + 1, a, b, split, null);
+            if (value == ABORTED) return ABORTED;
+
+            if (maximizing) bound.accumulateAndGet(value, Math::max);
+            else bound.accumulateAndGet(value, Math::min);
+            if (maximizing ? value >= beta : value <= alpha) split.cancel(); // corte: irmãos param
+            return value;
+        }
+
+        /** Verdadeiro se 'value' (o resultado deste irmão) é um score real e não um fail-low/high. */
+        boolean improved(int value) {
+            return maximizing ? value > searchedAlpha : value < searchedBeta;
+        }
+    }
+
+    /**
+     * Cópia do jogo com o lance aplicado. O jogo do pai só é lido aqui, e ninguém o altera
+     * enquanto os irmãos estão em andamento (o pai está parado em invokeAll).
+     */
+    private static Game snapshotOf(Game parent, int move) {
+        Game copy = parent.snapshot();
+        copy.makeMove(move);
+        return copy;
+    }
+}
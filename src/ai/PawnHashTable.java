@@ -0,0 +1,55 @@
+package ai;
+
+import model.board.BitBoard;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de estrutura de peões: guarda o termo de peões da avaliação pela chave só dos peões
+ * (Game.pawnKey). A estrutura de peões quase nunca muda entre nós irmãos, então mesmo uma
+ * tabela pequena acerta quase sempre.
+ *
+ * Endereçamento direto (uma entrada por índice, substituição sempre) em dois arrays
+ * primitivos de tamanho fixo. Não é compartilhada entre threads: cada busca tem a sua.
+ */
+public class PawnHashTable {
+
+    // Posições sem peões têm chave 0, então a entrada vazia precisa de outra marca
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] scores; // termo empacotado como em Evaluation.pawnStructure
+    private final int mask;
+    private long probes, hits;
+
+    /** @param entries número de entradas, arredondado para baixo até uma potência de 2. */
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.keys = new long[size];
+        this.scores = new int[size];
+        this.mask = size - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /** Termo de peões da posição: da tabela, ou calculado e guardado. */
+    public int probe(long pawnKey, BitBoard board) {
+        probes++;
+        int i = (int) pawnKey & mask;
+        if (keys[i] == pawnKey) {
+            hits++;
+            return scores[i];
+        }
+        int score = Evaluation.pawnStructure(board);
+        keys[i] = pawnKey;
+        scores[i] = score;
+        return score;
+    }
+
+    public long getProbes() { return probes; }
+
+    public long getHits() { return hits; }
+
+    public void resetStats() {
+        probes = hits = 0;
+    }
+}
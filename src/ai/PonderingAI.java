@@ -0,0 +1,126 @@
+package ai;
+
+import controller.Game;
+import model.board.Move;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * MinimaxAI com pondering: depois de jogar, o motor continua pensando durante o tempo do
+ * adversário, na posição que resulta da resposta que ele espera (getPonderMove()).
+ *
+ * - ponder hit (o adversário jogou o esperado): a mesma busca segue, com a tabela de
+ *   transposição e a profundidade já alcançadas, e o prazo de um lance contado desde o
+ *   início do ponder (se o adversário demorou mais que isso, a resposta é imediata);
+ * - ponder miss: a busca de ponder é interrompida e descartada, e uma busca normal começa
+ *   na posição real (a tabela aquecida ainda ajuda).
+ *
+ * A MinimaxAI embrulhada nunca roda duas buscas ao mesmo tempo: findBestMove espera a de
+ * ponder terminar antes de começar outra.
+ */
+public class PonderingAI {
+
+    private final MinimaxAI engine;
+    private final long moveTimeMillis;
+    private final ExecutorService ponderThread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ponder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Busca de ponder em andamento (null se não houver) e a posição que ela espera
+    private Future<Move> ponder;
+    private TimeManager ponderTime;
+    private long expectedKey;
+
+    // Resultado do último lance: veio do ponder (hit) ou não
+    private boolean lastWasPonderHit;
+
+    /**
+     * @param engine motor usado para as buscas (o chamador não deve usá-lo diretamente enquanto
+     *               houver ponder em andamento).
+     * @param moveTimeMillis tempo de relógio de cada lance (no ponder hit, contado desde o início do ponder).
+     */
+    public PonderingAI(MinimaxAI engine, long moveTimeMillis) {
+        this.engine = engine;
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    /** Lance para a posição: aproveita a busca de ponder se ela estava na posição certa. */
+    public Move findBestMove(Game game) {
+        if (ponder != null) {
+            boolean hit = game.zobristKey() == expectedKey;
+            if (hit) ponderTime.ponderHit(moveTimeMillis);
+            else ponderTime.stop();
+            Future<Move> search = ponder;
+            ponder = null; // limpo antes: se a busca falhou, o próximo lance começa do zero
+            Move pondered = await(search);
+            lastWasPonderHit = hit && pondered != null;
+            if (lastWasPonderHit) return pondered;
+        } else {
+            lastWasPonderHit = false;
+        }
+        return engine.findBestMove(game, TimeManager.forMoveTime(moveTimeMillis));
+    }
+
+    /**
+     * Começa a pensar no tempo do adversário: chamado logo depois do lance do motor ser jogado
+     * em 'game'. Sem resposta esperada (lance do livro, por exemplo), não faz nada.
+     */
+    public void startPondering(Game game) {
+        stopPondering();
+        Move expected = engine.getPonderMove();
+        if (expected == null || game.isGameOver()) return;
+
+        Game position = game.snapshot();
+        position.move(expected.getFrom(), expected.getTo(), expected.getPromotion());
+        if (position.isGameOver()) return;
+        expectedKey = position.zobristKey();
+        ponderTime = TimeManager.infinite();
+        TimeManager time = ponderTime;
+        ponder = ponderThread.submit(() -> engine.findBestMove(position, time));
+    }
+
+    /** Interrompe o ponder em andamento (ex.: novo jogo, fechar a janela). */
+    public void stopPondering() {
+        if (ponder == null) return;
+        ponderTime.stop();
+        Future<Move> search = ponder;
+        ponder = null;
+        await(search);
+    }
+
+    public boolean isPondering() {
+        return ponder != null;
+    }
+
+    /** Verdadeiro se o último findBestMove veio de um ponder hit. */
+    public boolean lastWasPonderHit() {
+        return lastWasPonderHit;
+    }
+
+    public MinimaxAI engine() {
+        return engine;
+    }
+
+    /** Encerra a thread de ponder. */
+    public void shutdown() {
+        stopPondering();
+        ponderThread.shutdownNow();
+    }
+
+    private static Move await(Future<Move> search) {
+        try {
+            return search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // A busca falhou: sobe para quem pediu o lance (o done() da GUI), não vira "sem lance"
+            throw new IllegalStateException("Falha na busca de ponder", e.getCause());
+        }
+    }
+}
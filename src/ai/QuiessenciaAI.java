@@ -1,4 +1,177 @@
 package ai;
 
+import controller.Game;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.board.Move;
+import model.board.PackedMove;
+import model.pieces.Piece;
+
+/**
+ * Busca de quiescência: em vez de avaliar a folha no meio de uma troca (efeito horizonte),
+ * continua buscando só capturas e promoções até a posição ficar "quieta".
+ *
+ * Não é um motor completo: MinimaxAI e NegamaxAI chamam search() no lugar da avaliação
+ * estática quando a profundidade chega a zero.
+ *
+ * - stand pat: quem joga pode recusar as capturas e ficar com a avaliação estática;
+ * - delta pruning: captura que nem ganhando a peça (mais uma margem) alcança alpha é pulada;
+ * - SEE (static exchange evaluation): capturas que perdem material na troca não são buscadas;
+ * - em xeque não há stand pat: todas as evasões são buscadas, e sem evasão é mate.
+ */
 public class QuiessenciaAI {
+
+    // Folga da poda delta (compensa o que a avaliação estática pode mudar além do material)
+    private static final int DELTA_MARGIN = 200;
+    // Limite de profundidade da quiescência (as capturas acabam bem antes)
+    private static final int MAX_QPLY = 64;
+
+    private final MoveOrdering ordering;
+    private final Evaluator evaluator;
+    // Um buffer de lances por nível da quiescência, reutilizado entre nós
+    private final int[][] moveStack = new int[MAX_QPLY][Game.MAX_MOVES];
+    // Ganhos da sequência de trocas do see(), reutilizado (uma instância por thread de busca)
+    private final int[] seeGain = new int[32];
+    private long nodes;
+
+    /** @param ordering ordenação do motor dono (usada aqui só pelo MVV-LVA das capturas). */
+    public QuiessenciaAI(MoveOrdering ordering) {
+        this(ordering, new Evaluator());
+    }
+
+    /** @param evaluator avaliação (com caches) do motor dono, compartilhada com a busca principal. */
+    public QuiessenciaAI(MoveOrdering ordering, Evaluator evaluator) {
+        this.ordering = ordering;
+        this.evaluator = evaluator;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void resetNodes() {
+        nodes = 0;
+    }
+
+    /** Quiescência do ponto de vista de quem joga (negamax, fail-soft). */
+    public int search(Game game, int alpha, int beta) {
+        return search(game, alpha, beta, 0, 0);
+    }
+
+    /** @param ply distância até a raiz da busca principal (para pontuar mates pela distância). */
+    public int search(Game game, int alpha, int beta, int ply) {
+        return search(game, alpha, beta, ply, 0);
+    }
+
+    private int search(Game game, int alpha, int beta, int ply, int qply) {
+        nodes++;
+        if (game.isGameOver() || qply >= MAX_QPLY) return evaluator.evaluateForSideToMove(game);
+
+        int[] moves = moveStack[qply];
+        int count;
+        int best;
+        int standPat = 0;
+        boolean inCheck = game.inCheck(game.whiteToMove());
+        if (inCheck) {
+            // Em xeque não existe stand pat: busca todas as evasões; sem nenhuma, é mate
+            count = game.generateMoves(moves, 0);
+            if (count == 0) return Evaluation.matedIn(ply);
+            best = Evaluation.matedIn(ply);
+        } else {
+            standPat = evaluator.evaluateForSideToMove(game);
+            if (standPat >= beta) return standPat;
+            if (standPat > alpha) alpha = standPat;
+            best = standPat;
+            count = tacticalMoves(game, moves);
+        }
+        ordering.order(game, moves, count, 0, MoveOrdering.MAX_PLY);
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            // Evasões de xeque e promoções são sempre buscadas
+            if (!inCheck && !PackedMove.isPromotion(move)) {
+                int gain = PackedMove.isEnPassant(move) ? Evaluation.PAWN_VALUE
+                        : Evaluation.pieceValue(game.board().pieceAt(PackedMove.to(move)).getType());
+                // Poda delta: nem o material em jogo recupera alpha
+                if (standPat + gain + DELTA_MARGIN <= alpha) continue;
+                // SEE: troca perdedora não merece ser buscada
+                if (see(game.board(), move) < 0) continue;
+            }
+
+            game.makeMove(move);
+            int score = -search(game, -beta, -alpha, ply + 1, qply + 1);
+            game.unmakeMove();
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Static exchange evaluation: saldo material da sequência de recapturas na casa de
+     * destino, cada lado sempre recapturando com a peça menos valiosa e podendo parar
+     * quando continuar não compensa. Leva em conta peças de longo alcance descobertas
+     * (raios X) ao remover cada atacante da ocupação.
+     */
+    public int see(BitBoard board, Move move) {
+        return see(board, PackedMove.fromMove(move));
+    }
+
+    /** SEE de um lance compactado (PackedMove), antes de jogá-lo. */
+    public int see(BitBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece target = board.pieceAt(to);
+        Piece mover = board.pieceAt(from);
+        int[] gain = seeGain;
+        gain[0] = PackedMove.isEnPassant(move) ? Evaluation.PAWN_VALUE
+                : target == null ? 0 : Evaluation.pieceValue(target.getType());
+
+        int attackerType = mover.getType();
+        boolean white = !mover.isWhite(); // quem recaptura primeiro
+        long occupied = board.occupancy() ^ (1L << from);
+        long attackers = Attacks.attackersTo(board, to, occupied) & occupied;
+
+        int d = 0;
+        while (true) {
+            d++;
+            // valor da peça que acabou de capturar, se for recapturada
+            gain[d] = Evaluation.pieceValue(attackerType) - gain[d - 1];
+            if (Math.max(-gain[d - 1], gain[d]) < 0) break; // nenhum lado quer continuar
+
+            long mine = attackers & board.colorMask(white);
+            if (mine == 0) break;
+            int type = Piece.PAWN;
+            long lva = 0;
+            for (; type <= Piece.KING; type++) {
+                lva = mine & board.bitboard(type, white);
+                if (lva != 0) break;
+            }
+            occupied ^= Long.lowestOneBit(lva);
+            attackers = Attacks.attackersTo(board, to, occupied) & occupied;
+            attackerType = type;
+            white = !white;
+            if (d == gain.length - 1) break;
+        }
+        while (--d > 0) {
+            gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+        }
+        return gain[0];
+    }
+
+    /** Capturas e promoções do lado da vez, compactadas no início de 'moves'; devolve quantas. */
+    private static int tacticalMoves(Game game, int[] moves) {
+        int all = game.generateMoves(moves, 0);
+        int count = 0;
+        for (int i = 0; i < all; i++) {
+            if (!PackedMove.isQuiet(moves[i])) moves[count++] = moves[i];
+        }
+        return count;
+    }
 }
@@ -0,0 +1,17 @@
+package ai;
+
+/**
+ * Recebe o andamento de uma busca por aprofundamento iterativo (ex.: as linhas "info" do UCI).
+ * Chamado na thread da busca, ao fim de cada iteração completa.
+ */
+public interface SearchListener {
+
+    /**
+     * @param depth profundidade da iteração que terminou.
+     * @param score score do ponto de vista de quem joga na raiz (mates como em Evaluation.MATE).
+     * @param nodes nós visitados desde o início da busca.
+     * @param elapsedMillis tempo desde o início da busca.
+     * @param pv variante principal (PackedMove), a partir da raiz.
+     */
+    void iterationFinished(int depth, int score, long nodes, long elapsedMillis, int[] pv);
+}
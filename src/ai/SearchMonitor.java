@@ -0,0 +1,99 @@
+package ai;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estatísticas acumuladas das buscas publicadas por JMX: totais desde o início (ou reset())
+ * e o resumo da última busca. Os motores chamam record() uma vez por busca, no fim dela, então
+ * o custo na busca é zero; o MBean só lê o que já foi somado.
+ */
+public final class SearchMonitor implements SearchMonitorMBean {
+
+    private static final System.Logger LOG = System.getLogger(SearchMonitor.class.getName());
+    private static final Map<String, SearchMonitor> REGISTERED = new ConcurrentHashMap<>();
+
+    private long searches, totalNodes, totalQuiescenceNodes, totalMillis;
+    private SearchStats last;
+
+    /**
+     * O monitor registrado como "ai:type=SearchMonitor,name=<name>" no servidor de MBeans da
+     * plataforma, criado na primeira chamada. Se o registro falhar, o monitor funciona sem JMX
+     * e a falha é registrada (uma vez por nome) no log.
+     */
+    public static SearchMonitor register(String name) {
+        return REGISTERED.computeIfAbsent(name, n -> {
+            SearchMonitor monitor = new SearchMonitor();
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(monitor, new ObjectName("ai:type=SearchMonitor,name=" + ObjectName.quote(n)));
+            } catch (JMException | SecurityException e) {
+                // Sem o MBean o monitor continua somando, só não aparece no JMX
+                LOG.log(System.Logger.Level.WARNING, "SearchMonitor '" + n + "' não registrado no JMX", e);
+            }
+            return monitor;
+        });
+    }
+
+    /** Soma uma busca terminada (chamado pela thread da busca). */
+    public synchronized void record(SearchStats stats) {
+        searches++;
+        totalNodes += stats.nodes();
+        totalQuiescenceNodes += stats.quiescenceNodes();
+        totalMillis += stats.elapsedMillis();
+        last = stats;
+    }
+
+    /** Resumo da última busca, ou null se ainda não houve nenhuma. */
+    public synchronized SearchStats last() {
+        return last;
+    }
+
+    @Override public synchronized long getSearches() { return searches; }
+
+    @Override public synchronized long getTotalNodes() { return totalNodes; }
+
+    @Override public synchronized long getTotalQuiescenceNodes() { return totalQuiescenceNodes; }
+
+    @Override public synchronized long getTotalMillis() { return totalMillis; }
+
+    @Override
+    public synchronized long getAverageNps() {
+        return (totalNodes + totalQuiescenceNodes) * 1000 / Math.max(1, totalMillis);
+    }
+
+    @Override public synchronized int getLastDepth() { return last == null ? 0 : last.depth(); }
+
+    @Override public synchronized long getLastNodes() { return last == null ? 0 : last.nodes(); }
+
+    @Override public synchronized long getLastNps() { return last == null ? 0 : last.nps(); }
+
+    @Override public synchronized long getLastElapsedMillis() { return last == null ? 0 : last.elapsedMillis(); }
+
+    @Override public synchronized double getLastTtHitRate() { return last == null ? 0 : last.ttHitRate(); }
+
+    @Override
+    public synchronized double getLastFirstMoveCutoffRate() {
+        return last == null ? 0 : last.firstMoveCutoffRate();
+    }
+
+    @Override public synchronized double getLastPawnHashHitRate() { return last == null ? 0 : last.pawnHashHitRate(); }
+
+    @Override public synchronized double getLastEvalCacheHitRate() { return last == null ? 0 : last.evalCacheHitRate(); }
+
+    @Override
+    public synchronized double getLastEffectiveBranchingFactor() {
+        return last == null ? 0 : last.effectiveBranchingFactor();
+    }
+
+    @Override public synchronized String getLastSummary() { return last == null ? "" : last.toString(); }
+
+    @Override
+    public synchronized void reset() {
+        searches = totalNodes = totalQuiescenceNodes = totalMillis = 0;
+        last = null;
+    }
+}
@@ -0,0 +1,37 @@
+package ai;
+
+/** Interface JMX de SearchMonitor (atributos em jconsole/VisualVM, em "ai:type=SearchMonitor"). */
+public interface SearchMonitorMBean {
+
+    long getSearches();
+
+    long getTotalNodes();
+
+    long getTotalQuiescenceNodes();
+
+    long getTotalMillis();
+
+    long getAverageNps();
+
+    int getLastDepth();
+
+    long getLastNodes();
+
+    long getLastNps();
+
+    long getLastElapsedMillis();
+
+    double getLastTtHitRate();
+
+    double getLastFirstMoveCutoffRate();
+
+    double getLastPawnHashHitRate();
+
+    double getLastEvalCacheHitRate();
+
+    double getLastEffectiveBranchingFactor();
+
+    String getLastSummary();
+
+    void reset();
+}
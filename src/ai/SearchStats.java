@@ -0,0 +1,80 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * Resumo de uma busca, montado no fim dela a partir dos contadores de cada thread (campos
+ * comuns das MinimaxAI, sem sincronização no caminho quente).
+ *
+ * @param depth última iteração completa.
+ * @param nodes nós da busca principal (sem a quiescência).
+ * @param quiescenceNodes nós da quiescência.
+ * @param elapsedMillis duração da busca.
+ * @param ttProbes consultas à tabela de transposição.
+ * @param ttHits consultas que acharam a posição.
+ * @param betaCutoffs cortes beta.
+ * @param firstMoveCutoffs cortes beta no primeiro lance (mede a ordenação de lances).
+ * @param pawnHashHitRate taxa de acerto da tabela de peões.
+ * @param evalCacheHitRate taxa de acerto do cache de avaliação.
+ * @param iterationNodes nós de cada iteração (índice 0 = profundidade 1).
+ * @param iterationMillis tempo de cada iteração, na mesma ordem.
+ */
+public record SearchStats(int depth, long nodes, long quiescenceNodes, long elapsedMillis,
+                          long ttProbes, long ttHits, long betaCutoffs, long firstMoveCutoffs,
+                          double pawnHashHitRate, double evalCacheHitRate,
+                          long[] iterationNodes, long[] iterationMillis) {
+
+    /** Nós por segundo, contando a quiescência. */
+    public long nps() {
+        return (nodes + quiescenceNodes) * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    public double ttHitRate() {
+        return ttProbes == 0 ? 0 : (double) ttHits / ttProbes;
+    }
+
+    /** Fração dos cortes beta que aconteceram no primeiro lance (perto de 1 = boa ordenação). */
+    public double firstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    /** Nós da iteração 'depth' sobre os da anterior; 0 se alguma das duas não terminou. */
+    public double branchingFactor(int depth) {
+        if (depth < 2 || depth > iterationNodes.length) return 0;
+        long previous = iterationNodes[depth - 2];
+        return previous == 0 ? 0 : (double) iterationNodes[depth - 1] / previous;
+    }
+
+    /** Fator de ramificação efetivo das duas últimas iterações. */
+    public double effectiveBranchingFactor() {
+        return branchingFactor(iterationNodes.length);
+    }
+
+    /**
+     * Soma com os contadores de outra thread da mesma busca. Profundidade, duração e
+     * iterações continuam as desta (a busca principal); as taxas viram média ponderada pelos nós.
+     */
+    public SearchStats merge(SearchStats other) {
+        long total = nodes + other.nodes;
+        double pawn = total == 0 ? 0 : (pawnHashHitRate * nodes + other.pawnHashHitRate * other.nodes) / total;
+        double eval = total == 0 ? 0 : (evalCacheHitRate * nodes + other.evalCacheHitRate * other.nodes) / total;
+        return new SearchStats(depth, total, quiescenceNodes + other.quiescenceNodes, elapsedMillis,
+                ttProbes + other.ttProbes, ttHits + other.ttHits, betaCutoffs + other.betaCutoffs,
+                firstMoveCutoffs + other.firstMoveCutoffs, pawn, eval, iterationNodes, iterationMillis);
+    }
+
+    /** Os mesmos contadores com a profundidade, a duração e as iterações da busca inteira. */
+    public SearchStats withSearch(int depth, long elapsedMillis, long[] iterationNodes, long[] iterationMillis) {
+        return new SearchStats(depth, nodes, quiescenceNodes, elapsedMillis, ttProbes, ttHits, betaCutoffs,
+                firstMoveCutoffs, pawnHashHitRate, evalCacheHitRate, iterationNodes, iterationMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d nodes %d qnodes %d time %d ms nps %d tt %.1f%% first-cut %.1f%%"
+                        + " pawn %.1f%% eval %.1f%% ebf %.2f iterations %s ms",
+                depth, nodes, quiescenceNodes, elapsedMillis, nps(), 100 * ttHitRate(),
+                100 * firstMoveCutoffRate(), 100 * pawnHashHitRate, 100 * evalCacheHitRate,
+                effectiveBranchingFactor(), Arrays.toString(iterationMillis));
+    }
+}
@@ -0,0 +1,27 @@
+package ai;
+
+/**
+ * Nó da árvore onde a busca paralela dividiu os irmãos em tarefas.
+ * Quando um irmão produz corte, o nó é cancelado; as buscas abaixo dele (inclusive de
+ * pontos de divisão filhos) percebem ao consultar a cadeia até a raiz.
+ */
+final class SplitPoint {
+
+    private final SplitPoint parent;
+    private volatile boolean cancelled;
+
+    SplitPoint(SplitPoint parent) {
+        this.parent = parent;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        for (SplitPoint p = this; p != null; p = p.parent) {
+            if (p.cancelled) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package ai;
+
+/**
+ * Controle de tempo de uma busca por aprofundamento iterativo.
+ *
+ * Há dois prazos: o "suave", depois do qual não vale começar outra iteração (ela quase
+ * certamente não terminaria), e o "rígido", em que a iteração em andamento é abortada.
+ * stop() encerra a busca de fora (ex.: comando da interface). Uma busca de ponder começa
+ * sem prazo e ganha os prazos de um lance normal no ponderHit().
+ */
+public class TimeManager {
+
+    // Folga para a latência entre decidir o lance e ele chegar ao tabuleiro/relógio
+    private static final long OVERHEAD_MS = 20;
+    // Sem "movestogo", supõe que ainda faltam esses lances na partida
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    private final long startNanos;
+    // Prazos medidos a partir do início (Long.MAX_VALUE = sem prazo); mudam no ponderHit()
+    private volatile long softNanos;
+    private volatile long hardNanos;
+    private volatile boolean stopped = false;
+
+    private TimeManager(long softMillis, long hardMillis) {
+        this.startNanos = System.nanoTime();
+        this.softNanos = toNanos(softMillis);
+        this.hardNanos = toNanos(hardMillis);
+    }
+
+    /** Tempo fixo por lance: para de aprofundar na metade e aborta no limite. */
+    public static TimeManager forMoveTime(long millis) {
+        long budget = Math.max(1, millis - OVERHEAD_MS);
+        return new TimeManager(budget / 2, budget);
+    }
+
+    /**
+     * Orçamento a partir do relógio: uma fatia do tempo restante mais a maior parte do
+     * incremento, podendo estourar até 3x quando a iteração já começou, sem passar de 1/4
+     * do que resta.
+     */
+    public static TimeManager forClock(long remainingMillis, long incrementMillis, int movesToGo) {
+        long usable = Math.max(1, remainingMillis - OVERHEAD_MS);
+        int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+        long soft = Math.min(usable / moves + incrementMillis * 3 / 4, usable / 2);
+        long hard = Math.min(soft * 3, Math.max(soft, usable / 4));
+        return new TimeManager(Math.max(1, soft), Math.max(1, hard));
+    }
+
+    /** Sem limite de tempo (profundidade fixa ou até stop()). */
+    public static TimeManager infinite() {
+        return new TimeManager(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /** Verdadeiro se ainda compensa iniciar mais uma iteração. */
+    public boolean canStartIteration() {
+        return !stopped && System.nanoTime() - startNanos < softNanos;
+    }
+
+    /** Verdadeiro quando a busca em andamento deve ser abortada. */
+    public boolean shouldStop() {
+        return stopped || System.nanoTime() - startNanos >= hardNanos;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Passa a usar os prazos de 'budget', contados a partir de agora. É o ponderhit do UCI:
+     * o relógio do motor só começa a correr quando a interface confirma o lance esperado.
+     */
+    public void startClock(TimeManager budget) {
+        long now = System.nanoTime() - startNanos;
+        softNanos = budget.softNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + budget.softNanos;
+        hardNanos = budget.hardNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + budget.hardNanos;
+    }
+
+    /**
+     * O lance esperado foi jogado: a busca de ponder (sem prazo até aqui) continua com os
+     * prazos de forMoveTime(moveTimeMillis), contados desde o início do ponder. O tempo do
+     * adversário conta como tempo de busca: se ele pensou mais que o orçamento, a resposta sai
+     * na hora, com a última iteração completa.
+     */
+    public void ponderHit(long moveTimeMillis) {
+        long budget = Math.max(1, moveTimeMillis - OVERHEAD_MS);
+        softNanos = toNanos(budget / 2);
+        hardNanos = toNanos(budget);
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static long toNanos(long millis) {
+        return millis >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : millis * 1_000_000;
+    }
+}
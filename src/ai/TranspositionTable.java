@@ -0,0 +1,129 @@
+package ai;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição de tamanho fixo (em megabytes) guardada num long[] primitivo.
+ *
+ * Cada entrada ocupa duas palavras: (chave ^ dados, dados). A leitura só aceita a entrada se
+ * o XOR das duas palavras devolver a chave procurada, então uma escrita concorrente "rasgada"
+ * entre as palavras vira um simples miss. Isso permite que várias threads de busca
+ * compartilhem a tabela sem locks.
+ *
+ * As entradas são agrupadas em baldes de 4 (64 bytes, uma linha de cache). Na substituição
+ * a mesma posição é sempre reaproveitada; caso contrário sai a entrada de menor
+ * profundidade, descontando as que sobraram de buscas anteriores (idade).
+ *
+ * Layout dos dados (64 bits):
+ *   bits  0-15  melhor lance (PackedMove.key(), 0 = nenhum)
+ *   bits 16-35  score + 2^19
+ *   bits 36-43  profundidade restante
+ *   bits 44-45  tipo de limite (EXACT/LOWER/UPPER)
+ *   bits 46-51  idade da busca que gravou
+ */
+public class TranspositionTable {
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2; // score é limite inferior (falhou alto)
+    public static final int BOUND_UPPER = 3; // score é limite superior (falhou baixo)
+
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final int AGE_MASK = 63;
+
+    private final long[] table;
+    private final int bucketMask;
+    private int age;
+
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(BUCKET_ENTRIES, (long) megabytes * 1024 * 1024 / 16);
+        // número de baldes arredondado para baixo até uma potência de 2
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET_ENTRIES, 1 << 26));
+        this.table = new long[buckets * BUCKET_ENTRIES * 2];
+        this.bucketMask = buckets - 1;
+    }
+
+    /** Marca o início de uma nova busca: entradas antigas passam a ser preferidas na substituição. */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /** Retorna os dados da entrada da posição, ou 0 se não houver. */
+    public long probe(long key) {
+        int base = bucketOf(key);
+        for (int i = 0; i < BUCKET_ENTRIES * 2; i += 2) {
+            long data = table[base + i + 1];
+            if (data != 0 && (table[base + i] ^ data) == key) return data;
+        }
+        return 0;
+    }
+
+    /** Grava o resultado de uma busca; mantém o lance antigo se 'move' for 0. */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int base = bucketOf(key);
+        int slot = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_ENTRIES * 2; i += 2) {
+            long data = table[base + i + 1];
+            if (data == 0) {
+                if (worst > Integer.MIN_VALUE) { worst = Integer.MIN_VALUE; slot = base + i; }
+                continue;
+            }
+            if ((table[base + i] ^ data) == key) {
+                // mesma posição: reaproveita a entrada, preservando o melhor lance conhecido
+                if (move == 0) move = move(data);
+                slot = base + i;
+                break;
+            }
+            int value = depth(data) - 8 * ((age - age(data)) & AGE_MASK);
+            if (value < worst) { worst = value; slot = base + i; }
+        }
+        long data = (move & 0xFFFFL)
+                | ((long) (score + SCORE_OFFSET) & 0xFFFFF) << 16
+                | ((long) Math.max(0, Math.min(depth, 255))) << 36
+                | ((long) bound) << 44
+                | ((long) age) << 46;
+        table[slot + 1] = data;
+        table[slot] = key ^ data;
+    }
+
+    // ==== scores de mate ====
+
+    /**
+     * Mates são guardados relativos ao nó (distância a partir dele), não à raiz, para que a
+     * mesma entrada sirva em outros plies.
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score > Evaluation.MATE_BOUND) return score + ply;
+        if (score < -Evaluation.MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    /** Inverso de scoreToTable: de volta à distância a partir da raiz. */
+    public static int scoreFromTable(int score, int ply) {
+        if (score > Evaluation.MATE_BOUND) return score - ply;
+        if (score < -Evaluation.MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    // ==== decodificação dos dados ====
+
+    public static int move(long data) { return (int) (data & 0xFFFF); }
+
+    public static int score(long data) { return (int) ((data >>> 16) & 0xFFFFF) - SCORE_OFFSET; }
+
+    public static int depth(long data) { return (int) ((data >>> 36) & 0xFF); }
+
+    public static int bound(long data) { return (int) ((data >>> 44) & 3); }
+
+    private static int age(long data) { return (int) ((data >>> 46) & AGE_MASK); }
+
+    private int bucketOf(long key) {
+        // bits altos da chave escolhem o balde; a chave inteira é conferida na leitura
+        return ((int) (key >>> 32) & bucketMask) * BUCKET_ENTRIES * 2;
+    }
+}
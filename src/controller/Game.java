@@ -1,7 +1,11 @@
 // ========================= src/controller/Game.java =========================
 package controller;
 
+import model.board.Attacks;
+import model.board.BitBoard;
 import model.board.Board;
+import model.board.Move;
+import model.board.PackedMove;
 import model.board.Position;
 import model.pieces.*;
 
@@ -11,25 +15,163 @@ import java.util.List;
 
 public class Game {
 
-    private Board board;
+    private BitBoard board;
     private boolean whiteToMove = true;
     private boolean gameOver = false;
     private Boolean winnerWhite = null; // null enquanto não acabou
 
-    // Casa-alvo para en passant (a casa "intermediária" após avanço de 2)
-    private Position enPassantTarget = null;
+    // Casa-alvo para en passant (a casa "intermediária" após avanço de 2), ou -1; um int para
+    // o makeMove não alocar um Position a cada avanço duplo
+    private int enPassantSquare = -1;
 
     // Histórico simples (ex.: "e2e4", "O-O")
     private final List<String> history = new ArrayList<>();
 
+    // Pilha de desfazer pré-alocada: cada makeMove reutiliza um registro, sem alocar por nó
+    private Undo[] undoStack = newUndoStack(256);
+    private int undoCount = 0;
+
+    // Chave Zobrist da posição atual, atualizada incrementalmente em makeMove
+    private long zobristKey;
+    // Chave só dos peões (mesmas chaves Zobrist), para a tabela de estrutura de peões
+    private long pawnKey;
+    // Avaliação incremental (ver PieceSquareTables): material + tabelas peça-casa de meio-jogo
+    // e de final, do ponto de vista das Brancas, e a fase do jogo; atualizadas em take/put
+    private int midgameScore, endgameScore, phase;
+    // Anel com as chaves das posições anteriores (índice = ply & KEY_RING_MASK)
+    private static final int KEY_RING_SIZE = 1024;
+    private static final int KEY_RING_MASK = KEY_RING_SIZE - 1;
+    private long[] keyRing = new long[KEY_RING_SIZE];
+    private int ply = 0;
+    // Meios-lances desde o último lance irreversível (peão, captura ou roque)
+    private int halfmoveClock = 0;
+    // Meios-lances jogados antes da posição de partida (vindo de FEN), para o número do lance
+    private int plyOffset = 0;
+
+    /** Tamanho suficiente para o buffer de uma geração de lances (máximo conhecido: 218). */
+    public static final int MAX_MOVES = 256;
+
+    /** FEN da posição inicial padrão. */
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
     public Game() {
-        this.board = new Board();
+        this.board = new BitBoard();
         setupPieces();
+        zobristKey = computeZobristKey();
+        pawnKey = computePawnKey();
+        computeEvaluationTerms();
+        keyRing[0] = zobristKey;
+    }
+
+    /** Usado por snapshot(): recebe o tabuleiro já pronto, sem montar a posição inicial. */
+    private Game(BitBoard board) {
+        this.board = board;
+    }
+
+    /**
+     * Monta um jogo a partir de uma posição FEN. Os direitos de roque viram as flags "moved"
+     * do rei e das torres (é assim que este modelo os guarda); relógio de meios-lances e número
+     * do lance são opcionais.
+     */
+    public static Game fromFen(String fen) {
+        String[] f = fen.trim().split("\\s+");
+        if (f.length < 2) throw new IllegalArgumentException("FEN incompleta: " + fen);
+
+        Game g = new Game(new BitBoard());
+        BitBoard b = g.board;
+        String[] ranks = f[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("FEN deve ter 8 fileiras: " + fen);
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char ch : ranks[row].toCharArray()) {
+                if (Character.isDigit(ch)) {
+                    col += ch - '0';
+                    continue;
+                }
+                if (col > 7) throw new IllegalArgumentException("Fileira longa demais: " + ranks[row]);
+                boolean white = Character.isUpperCase(ch);
+                Piece p = switch (Character.toUpperCase(ch)) {
+                    case 'P' -> new Pawn(b, white);
+                    case 'N' -> new Knight(b, white);
+                    case 'B' -> new Bishop(b, white);
+                    case 'R' -> new Rook(b, white);
+                    case 'Q' -> new Queen(b, white);
+                    case 'K' -> new King(b, white);
+                    default -> throw new IllegalArgumentException("Peça inválida na FEN: " + ch);
+                };
+                // Peão fora da casa inicial já andou; rei e torre dependem do campo de roque
+                p.setMoved(!(p instanceof Pawn) || row != (white ? 6 : 1));
+                b.placePiece(p, new Position(row, col++));
+            }
+            if (col != 8) throw new IllegalArgumentException("Fileira com tamanho errado: " + ranks[row]);
+        }
+
+        g.whiteToMove = f[1].equals("w");
+        String castling = f.length > 2 ? f[2] : "-";
+        if (castling.indexOf('K') >= 0) g.unmoveForCastling(60, 63);
+        if (castling.indexOf('Q') >= 0) g.unmoveForCastling(60, 56);
+        if (castling.indexOf('k') >= 0) g.unmoveForCastling(4, 7);
+        if (castling.indexOf('q') >= 0) g.unmoveForCastling(4, 0);
+        if (f.length > 3 && !f[3].equals("-")) {
+            g.enPassantSquare = BitBoard.square(8 - (f[3].charAt(1) - '0'), f[3].charAt(0) - 'a');
+        }
+        g.halfmoveClock = f.length > 4 ? Integer.parseInt(f[4]) : 0;
+        int fullmove = f.length > 5 ? Integer.parseInt(f[5]) : 1;
+        g.plyOffset = 2 * (fullmove - 1) + (g.whiteToMove ? 0 : 1);
+
+        g.zobristKey = g.computeZobristKey();
+        g.pawnKey = g.computePawnKey();
+        g.computeEvaluationTerms();
+        g.keyRing[0] = g.zobristKey;
+        return g;
+    }
+
+    /** Posição atual em FEN (casa de en passant só quando houve avanço duplo no último lance). */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                Piece p = board.pieceAt(BitBoard.square(row, col));
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                String symbol = p.getSymbol();
+                sb.append(p.isWhite() ? symbol : symbol.toLowerCase());
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < 7) sb.append('/');
+        }
+        sb.append(whiteToMove ? " w " : " b ");
+        int rights = castlingRights();
+        if (rights == 0) sb.append('-');
+        if ((rights & 1) != 0) sb.append('K');
+        if ((rights & 2) != 0) sb.append('Q');
+        if ((rights & 4) != 0) sb.append('k');
+        if ((rights & 8) != 0) sb.append('q');
+        sb.append(' ').append(enPassantSquare < 0 ? "-"
+                : coord(new Position(BitBoard.rowOf(enPassantSquare), BitBoard.columnOf(enPassantSquare))));
+        sb.append(' ').append(halfmoveClock);
+        sb.append(' ').append(1 + (plyOffset + ply) / 2);
+        return sb.toString();
+    }
+
+    /** Marca rei e torre como não movidos quando a FEN dá o direito de roque correspondente. */
+    private void unmoveForCastling(int kingSq, int rookSq) {
+        Piece king = board.pieceAt(kingSq);
+        Piece rook = board.pieceAt(rookSq);
+        if (king instanceof King && rook instanceof Rook && king.isWhite() == rook.isWhite()) {
+            king.setMoved(false);
+            rook.setMoved(false);
+        }
     }
 
     // ==== API usada pela GUI ====
 
-    public Board board() { return board; }
+    public BitBoard board() { return board; }
 
     public boolean whiteToMove() { return whiteToMove; }
 
@@ -40,19 +182,222 @@ public class Game {
     /** Retorna true para Brancas, false para Pretas; null se o jogo não terminou. */
     public Boolean winnerWhite() { return winnerWhite; }
 
+    /** Fim de jogo sem vencedor (repetição tripla ou afogamento). */
+    public boolean isDraw() { return gameOver && winnerWhite == null; }
+
     /** Retorna "Brancas"/"Pretas" se houver vencedor, senão null. */
     public String winnerText() {
         if (!gameOver || winnerWhite == null) return null;
         return winnerWhite ? "Brancas" : "Pretas";
         }
 
-    /** Retorna movimentos pseudo-legais (sem checar xeque). */
+    /** Casas de destino legais da peça em 'from' (inclui roque e en passant). */
     public List<Position> legalMovesFrom(Position from) {
         Piece p = board.get(from);
         if (p == null) return List.of();
-        if (p.isWhite() != whiteToMove) return List.of();
-        // >>> ALTERAÇÃO: sua Piece expõe getPossibleMoves() SEM parâmetros
-        return p.getPossibleMoves();
+        if (p.isWhite() != whiteToMove || gameOver) return List.of();
+        int sq = BitBoard.square(from);
+        int[] buffer = new int[MAX_MOVES];
+        int count = generateMoves(buffer, 0);
+        List<Position> targets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.from(buffer[i]) != sq) continue;
+            Position to = new Position(BitBoard.rowOf(PackedMove.to(buffer[i])), BitBoard.columnOf(PackedMove.to(buffer[i])));
+            if (!targets.contains(to)) targets.add(to); // as quatro promoções caem na mesma casa
+        }
+        return targets;
+    }
+
+    /** Todos os lances legais do lado da vez, como objetos Move (GUI e ferramentas). */
+    public List<Move> generateMoves() {
+        int[] buffer = new int[MAX_MOVES];
+        int count = generateMoves(buffer, 0);
+        List<Move> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) moves.add(toMove(buffer[i]));
+        return moves;
+    }
+
+    /**
+     * Os mesmos lances de generateMoves(), sem alocar: escreve os lances (PackedMove) em
+     * moves[offset..] e devolve o índice logo após o último. O buffer precisa de MAX_MOVES
+     * posições livres.
+     *
+     * Gera só lances legais sem fazer/desfazer, direto dos bitboards e tabelas de Attacks (sem
+     * passar pelos objetos Piece), descartando os que deixariam o rei em xeque com base nos
+     * xeques e cravadas atuais:
+     * - o rei não pode ir para casa atacada (olhando através dele mesmo, para raios);
+     * - em xeque duplo só o rei se move; em xeque simples as demais peças precisam capturar
+     *   o atacante ou se interpor entre ele e o rei;
+     * - peça cravada só anda sobre a linha da cravada.
+     * En passant (que pode descobrir o rei na horizontal) é testado com a ocupação resultante;
+     * roque exige rei fora de xeque e casas de passagem livres e não atacadas.
+     */
+    public int generateMoves(int[] moves, int offset) {
+        boolean white = whiteToMove;
+        int king = board.kingSquare(white);
+        if (king < 0) return generatePseudoLegalMoves(moves, offset); // posição sem rei (FEN de teste)
+
+        long enemy = board.colorMask(!white);
+        long occupied = board.occupancy();
+        long checkers = Attacks.attackersTo(board, king, occupied) & enemy;
+        long pinned = pinnedPieces(king, white);
+        // Casas válidas de destino para as peças que não são o rei
+        long targets = ~0L;
+        if (checkers != 0) {
+            targets = Long.bitCount(checkers) > 1
+                    ? 0L
+                    : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+
+        int count = generateKingMoves(moves, offset, king, white);
+        if (targets != 0) {
+            count = generatePieceMoves(moves, count, white, targets, pinned, king);
+            count = generateEnPassant(moves, count, king, white);
+        }
+        if (checkers == 0) count = generateCastling(moves, count, white);
+        return count;
+    }
+
+    /** Lances das peças sem filtro de xeque (só para posições sem rei). */
+    private int generatePseudoLegalMoves(int[] moves, int offset) {
+        return generatePieceMoves(moves, offset, whiteToMove, ~0L, 0L, -1);
+    }
+
+    /** Passos do rei para casas não atacadas (olhando através do próprio rei, para raios). */
+    private int generateKingMoves(int[] moves, int count, int king, boolean white) {
+        long enemy = board.colorMask(!white);
+        long withoutKing = board.occupancy() ^ (1L << king);
+        for (long bb = Attacks.KING[king] & ~board.colorMask(white); bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if ((Attacks.attackersTo(board, to, withoutKing) & enemy) == 0) {
+                moves[count++] = PackedMove.encode(king, to, 0, (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lances de peões, cavalos, bispos, torres e damas do lado 'white' para casas em 'targets';
+     * peças em 'pinned' só andam sobre a linha que passa pelo rei. Sem en passant nem roque.
+     */
+    private int generatePieceMoves(int[] moves, int count, boolean white, long targets, long pinned, int king) {
+        long own = board.colorMask(white);
+        long enemy = board.colorMask(!white);
+        long occupied = board.occupancy();
+        count = generatePawnMoves(moves, count, white, targets, pinned, king);
+        for (int type = Piece.KNIGHT; type <= Piece.QUEEN; type++) {
+            for (long bb = board.bitboard(type, white); bb != 0; bb &= bb - 1) {
+                int from = Long.numberOfTrailingZeros(bb);
+                long to = switch (type) {
+                    case Piece.KNIGHT -> Attacks.KNIGHT[from];
+                    case Piece.BISHOP -> Attacks.bishop(from, occupied);
+                    case Piece.ROOK -> Attacks.rook(from, occupied);
+                    default -> Attacks.queen(from, occupied);
+                } & ~own & targets;
+                if ((pinned & (1L << from)) != 0) to &= Attacks.line(king, from);
+                for (; to != 0; to &= to - 1) {
+                    int sq = Long.numberOfTrailingZeros(to);
+                    moves[count++] = PackedMove.encode(from, sq, 0, (enemy & (1L << sq)) != 0 ? PackedMove.CAPTURE : 0);
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Avanços e capturas de peão (com as quatro promoções na última fileira, Dama primeiro). */
+    private int generatePawnMoves(int[] moves, int count, boolean white, long targets, long pinned, int king) {
+        long enemy = board.colorMask(!white);
+        long empty = ~board.occupancy();
+        int forward = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        for (long bb = board.bitboard(Piece.PAWN, white); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            int one = from + forward;
+            if (one < 0 || one > 63) continue; // peão na última fileira (FEN inválida)
+            long allowed = (pinned & (1L << from)) != 0 ? targets & Attacks.line(king, from) : targets;
+            boolean promotes = BitBoard.rowOf(one) == 0 || BitBoard.rowOf(one) == 7;
+            if ((empty & (1L << one)) != 0) {
+                if ((allowed & (1L << one)) != 0) count = addPawnMove(moves, count, from, one, promotes, 0);
+                int two = one + forward;
+                if (BitBoard.rowOf(from) == startRow && (empty & allowed & (1L << two)) != 0) {
+                    moves[count++] = PackedMove.encode(from, two, 0, PackedMove.DOUBLE_PUSH);
+                }
+            }
+            long captures = Attacks.PAWN[white ? BitBoard.WHITE : BitBoard.BLACK][from] & enemy & allowed;
+            for (; captures != 0; captures &= captures - 1) {
+                count = addPawnMove(moves, count, from, Long.numberOfTrailingZeros(captures), promotes, PackedMove.CAPTURE);
+            }
+        }
+        return count;
+    }
+
+    private static int addPawnMove(int[] moves, int count, int from, int to, boolean promotes, int flags) {
+        if (!promotes) {
+            moves[count++] = PackedMove.encode(from, to, 0, flags);
+            return count;
+        }
+        moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_QUEEN, flags);
+        moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_KNIGHT, flags);
+        moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_ROOK, flags);
+        moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_BISHOP, flags);
+        return count;
+    }
+
+    /** Peças do lado 'white' cravadas contra o próprio rei por torres, bispos ou damas inimigas. */
+    private long pinnedPieces(int king, boolean white) {
+        long enemy = board.colorMask(!white);
+        long queens = board.bitboard(Piece.QUEEN, !white);
+        // Raios a partir do rei bloqueados só por inimigas: atrás de cada atacante alinhado
+        long snipers = (Attacks.rook(king, enemy) & (board.bitboard(Piece.ROOK, !white) | queens))
+                | (Attacks.bishop(king, enemy) & (board.bitboard(Piece.BISHOP, !white) | queens));
+        long own = board.colorMask(white);
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & board.occupancy();
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) pinned |= blockers;
+        }
+        return pinned;
+    }
+
+    /** Capturas en passant legais (testadas com a ocupação depois da captura). */
+    private int generateEnPassant(int[] moves, int count, int king, boolean white) {
+        if (enPassantSquare < 0) return count;
+        int target = enPassantSquare;
+        int capturedSquare = target + (white ? 8 : -8);
+        // peões nossos que atacam a casa-alvo = casas atacadas por um peão inimigo nela
+        long pawns = Attacks.PAWN[white ? BitBoard.BLACK : BitBoard.WHITE][target] & board.bitboard(Piece.PAWN, white);
+        long enemy = board.colorMask(!white) & ~(1L << capturedSquare);
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long after = board.occupancy() ^ (1L << from) ^ (1L << capturedSquare) | (1L << target);
+            if ((Attacks.attackersTo(board, king, after) & enemy) == 0) {
+                moves[count++] = PackedMove.encode(from, target, 0, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    /** Roques disponíveis (o chamador já garantiu que o rei não está em xeque). */
+    private int generateCastling(int[] moves, int count, boolean white) {
+        int rights = castlingRights() >> (white ? 0 : 2);
+        if ((rights & 3) == 0) return count;
+        int king = white ? 60 : 4;
+        long occupied = board.occupancy();
+        // O-O: f e g livres e não atacadas; O-O-O: b, c e d livres, c e d não atacadas
+        if ((rights & 1) != 0 && (occupied & (3L << (king + 1))) == 0
+                && !Attacks.isAttacked(board, king + 1, !white) && !Attacks.isAttacked(board, king + 2, !white)) {
+            moves[count++] = PackedMove.encode(king, king + 2, 0, PackedMove.CASTLE);
+        }
+        if ((rights & 2) != 0 && (occupied & (7L << (king - 3))) == 0
+                && !Attacks.isAttacked(board, king - 1, !white) && !Attacks.isAttacked(board, king - 2, !white)) {
+            moves[count++] = PackedMove.encode(king, king - 2, 0, PackedMove.CASTLE);
+        }
+        return count;
+    }
+
+    /** Move equivalente a um lance compactado, na posição atual (antes de jogá-lo). */
+    public Move toMove(int move) {
+        return PackedMove.toMove(move, board);
     }
 
     /** Verdadeiro se um peão que sai de 'from' e chega em 'to' promove. */
@@ -63,123 +408,401 @@ public class Game {
         else              return to.getRow() == 7;  // peão preto chegando na 1ª (base)
     }
 
-    /** Executa o lance (detecta roque, en passant e promoção). */
+    /**
+     * Executa o lance se ele for legal (detecta roque, en passant e promoção; sem peça
+     * escolhida, a promoção é a Dama) e verifica fim de jogo: xeque-mate, afogamento ou
+     * repetição tripla.
+     */
     public void move(Position from, Position to, Character promotion) {
         if (gameOver) return; // não permite jogar após fim
 
         Piece p = board.get(from);
         if (p == null) return;
         if (p.isWhite() != whiteToMove) return;
+        int move = findLegalMove(BitBoard.square(from), BitBoard.square(to), PackedMove.promotionCode(promotion));
+        if (move == PackedMove.NONE) return;
 
-        // -------- ROQUE --------
-        boolean isKing = (p instanceof King);
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-        if (isKing && dCol == 2) {
-            int row = from.getRow();
-
-            // mover o rei
-            board.set(to, p);
-            board.set(from, null);
-
-            if (to.getColumn() == 6) { // O-O (lado do rei)
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-                addHistory("O-O");
-            } else { // O-O-O (lado da dama)
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
-                addHistory("O-O-O");
-            }
+        // histórico simples (poderia virar SAN depois); calculado antes de mexer no tabuleiro
+        String notation = notation(from, to, p);
+        makeMove(move);
+        addHistory(notation);
 
-            p.setMoved(true);
-            enPassantTarget = null; // roque limpa en passant
-            // jogo não termina por roque; alterna a vez
-            whiteToMove = !whiteToMove;
-            return;
+        // -------- XEQUE-MATE / AFOGAMENTO --------
+        if (!gameOver && !hasLegalMoves()) {
+            gameOver = true;
+            winnerWhite = inCheck(whiteToMove) ? !whiteToMove : null;
         }
+        // -------- EMPATE POR REPETIÇÃO TRIPLA --------
+        if (!gameOver && isThreefoldRepetition()) {
+            gameOver = true;
+            winnerWhite = null;
+        }
+    }
 
-        // -------- EN PASSANT --------
-        boolean isPawn = (p instanceof Pawn);
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean isEnPassant = isPawn && diagonal && toIsEmpty && to.equals(enPassantTarget);
-        if (isEnPassant) {
-            board.set(to, p);
-            board.set(from, null);
-            // remover peão capturado "atrás" do destino
-            int dir = p.isWhite() ? 1 : -1;
-            board.set(new Position(to.getRow() + dir, to.getColumn()), null);
-            p.setMoved(true);
-            addHistory(coord(from) + "x" + coord(to) + " e.p.");
-            enPassantTarget = null; // só vale no lance imediatamente seguinte
-            // alterna a vez (não há captura de rei por e.p.)
-            whiteToMove = !whiteToMove;
-            return;
+    /** Lance legal de 'from' para 'to' com a promoção pedida (0 = Dama, se for promoção), ou NONE. */
+    private int findLegalMove(int from, int to, int promotion) {
+        int[] buffer = new int[MAX_MOVES];
+        int count = generateMoves(buffer, 0);
+        int wanted = promotion == PackedMove.PROMOTION_NONE ? PackedMove.PROMOTION_QUEEN : promotion;
+        for (int i = 0; i < count; i++) {
+            int m = buffer[i];
+            if (PackedMove.from(m) == from && PackedMove.to(m) == to
+                    && (!PackedMove.isPromotion(m) || PackedMove.promotion(m) == wanted)) {
+                return m;
+            }
         }
+        return PackedMove.NONE;
+    }
 
-        // -------- LANCE NORMAL (com ou sem captura) --------
-        Piece capturedBefore = board.get(to);
+    // ==== make/unmake (usado pela busca) ====
 
-        board.set(to, p);
-        board.set(from, null);
-        p.setMoved(true);
+    /** Aplica o lance guardando o necessário para unmakeMove(); não valida nem grava histórico. */
+    public void makeMove(Move m) {
+        makeMove(BitBoard.square(m.getFrom()), BitBoard.square(m.getTo()), m.getPromotion());
+    }
 
-        // -------- MARCA/RESSETA EN PASSANT --------
-        if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
-            int mid = (to.getRow() + from.getRow()) / 2;
-            enPassantTarget = new Position(mid, from.getColumn());
+    /** Aplica um lance compactado (PackedMove), como os de generateMoves(int[], int). */
+    public void makeMove(int move) {
+        makeMove(PackedMove.from(move), PackedMove.to(move), PackedMove.promotion(move));
+    }
+
+    /** Aplica o lance entre as casas 0..63 (ver BitBoard.square) guardando o estado de desfazer. */
+    public void makeMove(int from, int to, Character promotion) {
+        makeMove(from, to, PackedMove.promotionCode(promotion));
+    }
+
+    /** Núcleo do make: 'promotionCode' como em PackedMove (0 = sem promoção). */
+    private void makeMove(int from, int to, int promotionCode) {
+        Piece p = board.pieceAt(from);
+        Undo u = pushUndo();
+        u.from = from;
+        u.to = to;
+        u.moved = p;
+        u.movedBefore = p.hasMoved();
+        u.captured = null;
+        u.capturedSquare = to;
+        u.rookFrom = -1;
+        u.enPassantBefore = enPassantSquare;
+        u.gameOverBefore = gameOver;
+        u.winnerBefore = winnerWhite;
+        u.zobristBefore = zobristKey;
+        u.pawnKeyBefore = pawnKey;
+        u.midgameBefore = midgameScore;
+        u.endgameBefore = endgameScore;
+        u.phaseBefore = phase;
+        u.halfmoveBefore = halfmoveClock;
+
+        int castlingBefore = castlingRights();
+        int fromCol = BitBoard.columnOf(from), toCol = BitBoard.columnOf(to);
+        boolean isPawn = (p instanceof Pawn);
+        boolean irreversible = isPawn;
+
+        if (p instanceof King && Math.abs(toCol - fromCol) == 2) {
+            // -------- ROQUE --------
+            int rowBase = from - fromCol;
+            int rookFrom = rowBase + (toCol == 6 ? 7 : 0);   // O-O usa a torre de h, O-O-O a de a
+            int rookTo = rowBase + (toCol == 6 ? 5 : 3);
+            take(from);
+            put(to, p);
+            Piece rook = board.pieceAt(rookFrom);
+            if (rook != null) {
+                u.rookFrom = rookFrom;
+                u.rookTo = rookTo;
+                u.rookMovedBefore = rook.hasMoved();
+                take(rookFrom);
+                put(rookTo, rook);
+                rook.setMoved(true);
+            }
+            p.setMoved(true);
+            irreversible = true;
+            setEnPassant(-1); // roque limpa en passant
+        } else if (isPawn && fromCol != toCol && board.pieceAt(to) == null
+                && enPassantSquare == to) {
+            // -------- EN PASSANT --------
+            // peão capturado fica "atrás" do destino
+            int capturedSquare = to + (p.isWhite() ? 8 : -8);
+            u.captured = take(capturedSquare);
+            u.capturedSquare = capturedSquare;
+            take(from);
+            put(to, p);
+            p.setMoved(true);
+            setEnPassant(-1); // só vale no lance imediatamente seguinte
         } else {
-            enPassantTarget = null;
+            // -------- LANCE NORMAL (com ou sem captura) --------
+            u.captured = take(to);
+            take(from);
+            put(to, p);
+            p.setMoved(true);
+            if (u.captured != null) irreversible = true;
+
+            // -------- MARCA/RESSETA EN PASSANT --------
+            if (isPawn && Math.abs(to - from) == 16) {
+                setEnPassant((from + to) / 2);
+            } else {
+                setEnPassant(-1);
+            }
+
+            // -------- PROMOÇÃO --------
+            int lastRow = p.isWhite() ? 0 : 7;
+            if (promotionCode != 0 && isPawn && BitBoard.rowOf(to) == lastRow) {
+                Piece np = u.promotionPiece(promotionCode, p.isWhite(), board);
+                np.setMoved(true);
+                take(to);
+                put(to, np);
+            }
+
+            // -------- FIM DE JOGO POR CAPTURA DO REI --------
+            if (u.captured instanceof King) {
+                gameOver = true;
+                winnerWhite = p.isWhite();
+            }
         }
 
-        // -------- PROMOÇÃO --------
-        if (promotion != null && isPawn && isPromotion(from, to)) {
-            Piece np = switch (Character.toUpperCase(promotion)) {
-                case 'R' -> new Rook(board, p.isWhite());
-                case 'B' -> new Bishop(board, p.isWhite());
-                case 'N' -> new Knight(board, p.isWhite());
-                default  -> new Queen(board, p.isWhite());
-            };
-            np.setMoved(true);
-            board.set(to, np);
+        int castlingAfter = castlingRights();
+        if (castlingAfter != castlingBefore) {
+            zobristKey ^= Zobrist.CASTLING[castlingBefore] ^ Zobrist.CASTLING[castlingAfter];
+            irreversible = true;
         }
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        whiteToMove = !whiteToMove;
 
-        // histórico simples (poderia virar SAN depois)
-        addHistory(coord(from) + (capturedBefore != null ? "x" : "-") + coord(to));
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        keyRing[++ply & KEY_RING_MASK] = zobristKey;
+    }
 
-        // -------- FIM DE JOGO POR CAPTURA DO REI --------
-        if (capturedBefore instanceof King) {
-            gameOver = true;
-            winnerWhite = p.isWhite();
-            return; // não alterna a vez após término
+    /** Desfaz o último makeMove() (inclusive os feitos por move()). */
+    public void unmakeMove() {
+        Undo u = undoStack[--undoCount];
+        whiteToMove = !whiteToMove;
+
+        if (u.rookFrom >= 0) {
+            Piece rook = board.pieceAt(u.rookTo);
+            board.set(u.rookFrom, rook);
+            board.set(u.rookTo, null);
+            rook.setMoved(u.rookMovedBefore);
         }
+        board.set(u.to, null); // remove a peça movida (ou a promovida)
+        board.set(u.from, u.moved);
+        u.moved.setMoved(u.movedBefore);
+        if (u.captured != null) board.set(u.capturedSquare, u.captured);
+
+        enPassantSquare = u.enPassantBefore;
+        gameOver = u.gameOverBefore;
+        winnerWhite = u.winnerBefore;
+        zobristKey = u.zobristBefore;
+        pawnKey = u.pawnKeyBefore;
+        midgameScore = u.midgameBefore;
+        endgameScore = u.endgameBefore;
+        phase = u.phaseBefore;
+        halfmoveClock = u.halfmoveBefore;
+        ply--;
+    }
+
+    /**
+     * Passa a vez sem mexer peças (lance nulo, usado pela poda de lance nulo da busca). Limpa o
+     * en passant e reinicia a contagem de repetição: posições de antes do lance nulo não contam.
+     * Desfeito só por unmakeNullMove().
+     */
+    public void makeNullMove() {
+        Undo u = pushUndo();
+        u.from = u.to = -1; // lastMoveTarget() = -1: não há lance para o contra-lance
+        u.enPassantBefore = enPassantSquare;
+        u.zobristBefore = zobristKey;
+        u.halfmoveBefore = halfmoveClock;
+        setEnPassant(-1);
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        whiteToMove = !whiteToMove;
+        halfmoveClock = 0;
+        keyRing[++ply & KEY_RING_MASK] = zobristKey;
+    }
 
+    public void unmakeNullMove() {
+        Undo u = undoStack[--undoCount];
         whiteToMove = !whiteToMove;
+        enPassantSquare = u.enPassantBefore;
+        zobristKey = u.zobristBefore;
+        halfmoveClock = u.halfmoveBefore;
+        ply--;
+    }
+
+    /** Casa de destino do último lance feito (ou -1 se não houver); usada pela ordenação da busca. */
+    public int lastMoveTarget() {
+        return undoCount == 0 ? -1 : undoStack[undoCount - 1].to;
+    }
+
+    // ==== Zobrist e repetição ====
+
+    /** Chave Zobrist de 64 bits: peças, lado a mover, direitos de roque e coluna de en passant. */
+    public long zobristKey() { return zobristKey; }
+
+    /** Meios-lances desde a última captura ou lance de peão (regra dos 50 lances). */
+    public int halfmoveClock() { return halfmoveClock; }
+
+    /** Chave Zobrist só dos peões: muda só quando algum peão se move, é capturado ou promove. */
+    public long pawnKey() { return pawnKey; }
+
+    /** Material + posição de meio-jogo, do ponto de vista das Brancas (mantido a cada lance). */
+    public int midgameScore() { return midgameScore; }
+
+    /** Material + posição de final, do ponto de vista das Brancas (mantido a cada lance). */
+    public int endgameScore() { return endgameScore; }
+
+    /** Fase do jogo pelas peças no tabuleiro: PieceSquareTables.MAX_PHASE na abertura, 0 só com reis e peões. */
+    public int phase() { return phase; }
+
+    /** Verdadeiro se a posição atual já ocorreu desde o último lance irreversível (usado pela busca). */
+    public boolean isRepetition() {
+        return countRepetitions(1) >= 1;
+    }
+
+    /** Verdadeiro se a posição atual está ocorrendo pela terceira vez. */
+    public boolean isThreefoldRepetition() {
+        return countRepetitions(2) >= 2;
+    }
+
+    /** Conta ocorrências anteriores da posição atual, parando em 'limit'. O(meios-lances reversíveis). */
+    private int countRepetitions(int limit) {
+        int oldest = Math.max(ply - halfmoveClock, Math.max(0, ply - KEY_RING_SIZE + 1));
+        int count = 0;
+        // mesma vez de jogar só se repete a cada 2 meios-lances, e nunca antes de 4
+        for (int i = ply - 4; i >= oldest; i -= 2) {
+            if (keyRing[i & KEY_RING_MASK] == zobristKey && ++count >= limit) break;
+        }
+        return count;
+    }
+
+    /** Recalcula a chave do zero (construção e FEN). */
+    private long computeZobristKey() {
+        long key = 0;
+        for (long bb = board.occupancy(); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            key ^= Zobrist.PIECE[board.pieceAt(sq).getIndex()][sq];
+        }
+        key ^= Zobrist.CASTLING[castlingRights()];
+        if (enPassantSquare >= 0) key ^= Zobrist.EN_PASSANT_FILE[BitBoard.columnOf(enPassantSquare)];
+        if (!whiteToMove) key ^= Zobrist.BLACK_TO_MOVE;
+        return key;
+    }
+
+    /** Recalcula do zero a chave só dos peões (construção e FEN). */
+    private long computePawnKey() {
+        long key = 0;
+        long pawns = board.bitboard(Piece.PAWN, true) | board.bitboard(Piece.PAWN, false);
+        for (long bb = pawns; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            key ^= Zobrist.PIECE[board.pieceAt(sq).getIndex()][sq];
+        }
+        return key;
+    }
+
+    /** Recalcula do zero os totais da avaliação incremental (construção). */
+    private void computeEvaluationTerms() {
+        midgameScore = endgameScore = phase = 0;
+        for (long bb = board.occupancy(); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            addEvaluationTerms(board.pieceAt(sq), sq, 1);
+        }
+    }
+
+    /** Soma (sign = 1) ou tira (sign = -1) a contribuição da peça na casa. */
+    private void addEvaluationTerms(Piece p, int sq, int sign) {
+        int index = p.getIndex();
+        midgameScore += sign * PieceSquareTables.midgame(index, sq);
+        endgameScore += sign * PieceSquareTables.endgame(index, sq);
+        phase += sign * PieceSquareTables.phase(p.getType());
+    }
+
+    /**
+     * Direitos de roque derivados das flags "moved": bit 0 = O-O brancas, 1 = O-O-O brancas,
+     * 2 = O-O pretas, 3 = O-O-O pretas.
+     */
+    private int castlingRights() {
+        int rights = 0;
+        if (unmovedKing(60, true)) {
+            if (unmovedRook(63, true)) rights |= 1;
+            if (unmovedRook(56, true)) rights |= 2;
+        }
+        if (unmovedKing(4, false)) {
+            if (unmovedRook(7, false)) rights |= 4;
+            if (unmovedRook(0, false)) rights |= 8;
+        }
+        return rights;
+    }
+
+    private boolean unmovedKing(int sq, boolean white) {
+        Piece p = board.pieceAt(sq);
+        return p instanceof King && p.isWhite() == white && !p.hasMoved();
+    }
+
+    private boolean unmovedRook(int sq, boolean white) {
+        Piece p = board.pieceAt(sq);
+        return p instanceof Rook && p.isWhite() == white && !p.hasMoved();
+    }
+
+    /** Tira a peça da casa (se houver) atualizando a chave e a avaliação. */
+    private Piece take(int sq) {
+        Piece p = board.pieceAt(sq);
+        if (p != null) {
+            zobristKey ^= Zobrist.PIECE[p.getIndex()][sq];
+            if (p.getType() == Piece.PAWN) pawnKey ^= Zobrist.PIECE[p.getIndex()][sq];
+            addEvaluationTerms(p, sq, -1);
+            board.set(sq, null);
+        }
+        return p;
+    }
+
+    /** Coloca a peça numa casa vazia atualizando a chave e a avaliação. */
+    private void put(int sq, Piece p) {
+        zobristKey ^= Zobrist.PIECE[p.getIndex()][sq];
+        if (p.getType() == Piece.PAWN) pawnKey ^= Zobrist.PIECE[p.getIndex()][sq];
+        addEvaluationTerms(p, sq, 1);
+        board.set(sq, p);
+    }
+
+    private void setEnPassant(int square) {
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[BitBoard.columnOf(enPassantSquare)];
+        enPassantSquare = square;
+        if (square >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[BitBoard.columnOf(square)];
     }
 
-    /** Indica se o lado passado está em xeque (stub por enquanto). */
+    /** Indica se o rei do lado passado está atacado. */
     public boolean inCheck(boolean whiteSide) {
-        // Implementação completa exige varrer movimentos do oponente até o rei.
-        // Mantemos false para não travar a GUI. Posso implementar depois.
-        return false;
+        int king = board.kingSquare(whiteSide);
+        return king >= 0 && Attacks.isAttacked(board, king, !whiteSide);
     }
 
-    /** Snapshot raso (usa Board.copy()). */
+    /** Verdadeiro se o lado da vez tem ao menos um lance legal. */
+    public boolean hasLegalMoves() {
+        return generateMoves(new int[MAX_MOVES], 0) > 0;
+    }
+
+    /** Lado da vez sem lances legais e em xeque. */
+    public boolean isCheckmate() {
+        return !hasLegalMoves() && inCheck(whiteToMove);
+    }
+
+    /** Lado da vez sem lances legais e fora de xeque (empate). */
+    public boolean isStalemate() {
+        return !hasLegalMoves() && !inCheck(whiteToMove);
+    }
+
+    /** Snapshot raso (usa Board.copy()); a pilha de desfazer começa vazia na cópia. */
     public Game snapshot() {
-        Game g = new Game();
-        g.board = this.board.copy();
+        Game g = new Game(this.board.copy());
         g.whiteToMove = this.whiteToMove;
         g.gameOver = this.gameOver;
         g.winnerWhite = this.winnerWhite;
-        g.enPassantTarget = (this.enPassantTarget == null)
-                ? null
-                : new Position(enPassantTarget.getRow(), enPassantTarget.getColumn());
-        g.history.clear();
+        g.enPassantSquare = this.enPassantSquare;
         g.history.addAll(this.history);
+        g.zobristKey = this.zobristKey;
+        g.pawnKey = this.pawnKey;
+        g.midgameScore = this.midgameScore;
+        g.endgameScore = this.endgameScore;
+        g.phase = this.phase;
+        g.keyRing = this.keyRing.clone();
+        g.ply = this.ply;
+        g.halfmoveClock = this.halfmoveClock;
+        g.plyOffset = this.plyOffset;
         return g;
     }
 
@@ -189,6 +812,69 @@ public class Game {
         history.add(moveStr);
     }
 
+    /** Texto do lance para o histórico: "O-O", "e5xd6 e.p.", "e2-e4", "d4xe5". */
+    private String notation(Position from, Position to, Piece p) {
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return to.getColumn() == 6 ? "O-O" : "O-O-O";
+        }
+        boolean capture = board.get(to) != null;
+        if (p instanceof Pawn && !capture && from.getColumn() != to.getColumn() && BitBoard.square(to) == enPassantSquare) {
+            return coord(from) + "x" + coord(to) + " e.p.";
+        }
+        return coord(from) + (capture ? "x" : "-") + coord(to);
+    }
+
+    private Undo pushUndo() {
+        if (undoCount == undoStack.length) {
+            Undo[] bigger = newUndoStack(undoStack.length * 2);
+            System.arraycopy(undoStack, 0, bigger, 0, undoCount);
+            undoStack = bigger;
+        }
+        return undoStack[undoCount++];
+    }
+
+    private static Undo[] newUndoStack(int size) {
+        Undo[] stack = new Undo[size];
+        for (int i = 0; i < size; i++) stack[i] = new Undo();
+        return stack;
+    }
+
+    /** Estado mínimo para desfazer um lance: peça capturada, flags "moved", en passant e roque.
+     *  A promoção se desfaz recolocando a peça movida (o peão) na origem. */
+    private static final class Undo {
+        int from, to;
+        Piece moved;
+        boolean movedBefore;
+        Piece captured;
+        int capturedSquare;
+        int rookFrom, rookTo;       // rookFrom = -1 quando não foi roque
+        boolean rookMovedBefore;
+        int enPassantBefore;
+        boolean gameOverBefore;
+        Boolean winnerBefore;
+        long zobristBefore, pawnKeyBefore;
+        int midgameBefore, endgameBefore, phaseBefore;
+        int halfmoveBefore;
+        // Peças de promoção deste registro, criadas na primeira vez e reaproveitadas: a peça
+        // promovida só fica no tabuleiro enquanto o registro está na pilha
+        private final Piece[] promotions = new Piece[8];
+
+        Piece promotionPiece(int promotionCode, boolean white, Board board) {
+            int slot = (white ? 0 : 4) + promotionCode - 1;
+            Piece piece = promotions[slot];
+            if (piece == null) {
+                piece = switch (promotionCode) {
+                    case PackedMove.PROMOTION_ROOK -> new Rook(board, white);
+                    case PackedMove.PROMOTION_BISHOP -> new Bishop(board, white);
+                    case PackedMove.PROMOTION_KNIGHT -> new Knight(board, white);
+                    default -> new Queen(board, white);
+                };
+                promotions[slot] = piece;
+            }
+            return piece;
+        }
+    }
+
     private String coord(Position p) {
         // Converte (row,col) em notação "a1..h8" assumindo 0..7 de cima p/baixo
         char file = (char) ('a' + p.getColumn());
@@ -0,0 +1,162 @@
+package controller;
+
+import model.board.BitBoard;
+import model.board.Move;
+import model.board.PackedMove;
+import model.board.Square;
+import model.pieces.Piece;
+
+/**
+ * Notação algébrica padrão (SAN), como nos arquivos PGN: "e4", "Nbd7", "exd6", "O-O",
+ * "e8=Q+". A leitura confere o texto contra os lances legais da posição, então aceita
+ * variações comuns (sem '=' na promoção, "0-0", sufixos "+", "#", "!", "?").
+ * A escrita segue o padrão (desambiguação mínima, "=Q", "+" e "#").
+ * Também converte da e para a notação de coordenadas do UCI ("e2e4", "e7e8q", roque "e1g1").
+ */
+public final class Notation {
+
+    private Notation() { }
+
+    /** Lance legal (PackedMove) escrito em SAN na posição atual do jogo, ou NONE se não houver. */
+    public static int fromSan(Game game, String san) {
+        String s = stripSuffixes(san);
+        if (s.isEmpty()) return PackedMove.NONE;
+
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        BitBoard board = game.board();
+
+        if (s.equals("O-O") || s.equals("0-0") || s.equals("O-O-O") || s.equals("0-0-0")) {
+            boolean kingSide = s.length() == 3;
+            for (int i = 0; i < count; i++) {
+                int m = moves[i];
+                if (PackedMove.isCastle(m) && (PackedMove.to(m) > PackedMove.from(m)) == kingSide) return m;
+            }
+            return PackedMove.NONE;
+        }
+
+        // Promoção: "e8=Q" ou "e8Q"
+        int promotion = PackedMove.PROMOTION_NONE;
+        char last = s.charAt(s.length() - 1);
+        if ("NBRQ".indexOf(last) >= 0 && s.length() > 2) {
+            promotion = PackedMove.promotionCode(last);
+            s = s.substring(0, s.length() - (s.charAt(s.length() - 2) == '=' ? 2 : 1));
+        }
+
+        int type = Piece.PAWN;
+        int pieceLetter = "NBRQK".indexOf(s.charAt(0));
+        if (pieceLetter >= 0) {
+            type = Piece.KNIGHT + pieceLetter;
+            s = s.substring(1);
+        }
+        if (s.length() < 2) return PackedMove.NONE;
+
+        int to = square(s.substring(s.length() - 2));
+        if (to < 0) return PackedMove.NONE;
+        // O que sobra antes do destino é desambiguação (coluna, fileira ou casa) e/ou 'x'
+        String disambiguation = s.substring(0, s.length() - 2).replace("x", "");
+        int fromColumn = -1, fromRow = -1;
+        for (char c : disambiguation.toCharArray()) {
+            if (c >= 'a' && c <= 'h') fromColumn = c - 'a';
+            else if (c >= '1' && c <= '8') fromRow = '8' - c;
+            else return PackedMove.NONE;
+        }
+
+        int found = PackedMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int m = moves[i];
+            int from = PackedMove.from(m);
+            if (PackedMove.to(m) != to || PackedMove.isCastle(m)) continue;
+            if (board.pieceAt(from).getType() != type) continue;
+            if (fromColumn >= 0 && BitBoard.columnOf(from) != fromColumn) continue;
+            if (fromRow >= 0 && BitBoard.rowOf(from) != fromRow) continue;
+            if (PackedMove.promotion(m) != promotion) continue;
+            if (found != PackedMove.NONE) return PackedMove.NONE; // ambíguo
+            found = m;
+        }
+        return found;
+    }
+
+    /** SAN de um lance legal (PackedMove) na posição atual, com "+" ou "#" quando dá xeque ou mate. */
+    public static String toSan(Game game, int move) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        StringBuilder san = new StringBuilder();
+        if (PackedMove.isCastle(move)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            int type = game.board().pieceAt(from).getType();
+            boolean capture = PackedMove.isCapture(move);
+            if (type == Piece.PAWN) {
+                if (capture) san.append((char) ('a' + BitBoard.columnOf(from))).append('x');
+            } else {
+                san.append("NBRQK".charAt(type - Piece.KNIGHT));
+                san.append(disambiguation(game, move, type));
+                if (capture) san.append('x');
+            }
+            san.append(Square.of(to));
+            Character promotion = PackedMove.promotionPiece(PackedMove.promotion(move));
+            if (promotion != null) san.append('=').append(Character.toUpperCase(promotion));
+        }
+        game.makeMove(move);
+        if (game.inCheck(game.whiteToMove())) san.append(game.hasLegalMoves() ? '+' : '#');
+        game.unmakeMove();
+        return san.toString();
+    }
+
+    /** SAN de um Move legal na posição atual (como devolvido pelas IAs). */
+    public static String toSan(Game game, Move move) {
+        return toSan(game, PackedMove.fromMove(move));
+    }
+
+    /** Coluna, fileira ou casa de origem, quando outra peça do mesmo tipo também chega ao destino. */
+    private static String disambiguation(Game game, int move, int type) {
+        int from = PackedMove.from(move), to = PackedMove.to(move);
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        boolean ambiguous = false, sameColumn = false, sameRow = false;
+        for (int i = 0; i < count; i++) {
+            int other = PackedMove.from(moves[i]);
+            if (other == from || PackedMove.to(moves[i]) != to) continue;
+            if (game.board().pieceAt(other).getType() != type) continue;
+            ambiguous = true;
+            sameColumn |= BitBoard.columnOf(other) == BitBoard.columnOf(from);
+            sameRow |= BitBoard.rowOf(other) == BitBoard.rowOf(from);
+        }
+        if (!ambiguous) return "";
+        String square = Square.of(from).toString();
+        if (!sameColumn) return square.substring(0, 1);
+        if (!sameRow) return square.substring(1);
+        return square;
+    }
+
+    /** Lance legal em notação de coordenadas ("e2e4", "e7e8q") na posição atual, ou NONE. */
+    public static int fromUci(Game game, String text) {
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.toString(moves[i]).equals(text)) return moves[i];
+        }
+        return PackedMove.NONE;
+    }
+
+    /** Notação de coordenadas de um Move (a mesma de PackedMove.toString). */
+    public static String toUci(Move move) {
+        String text = move.getFrom().toString() + move.getTo();
+        return move.getPromotion() == null ? text : text + Character.toLowerCase(move.getPromotion());
+    }
+
+    /** Casa "a1".."h8" para 0..63 (a8 = 0), ou -1. */
+    public static int square(String text) {
+        if (text.length() != 2) return -1;
+        int column = text.charAt(0) - 'a';
+        int row = '8' - text.charAt(1);
+        if (column < 0 || column > 7 || row < 0 || row > 7) return -1;
+        return BitBoard.square(row, column);
+    }
+
+    private static String stripSuffixes(String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        return san.substring(0, end).trim();
+    }
+}
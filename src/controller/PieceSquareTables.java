@@ -0,0 +1,164 @@
+package controller;
+
+import model.pieces.Piece;
+
+/**
+ * Tabelas peça-casa de meio-jogo e de final, já somadas ao valor material da peça.
+ *
+ * Indexadas por Piece.getIndex() (0..5 Brancas, 6..11 Pretas) e pela casa 0..63 (a8 = 0);
+ * o valor é do ponto de vista das Brancas (peças pretas entram negativas). Assim o Game pode
+ * manter os dois totais da posição só somando e subtraindo entradas a cada peça que entra ou
+ * sai de uma casa, e a avaliação interpola entre eles pela fase do jogo. Os valores materiais
+ * ficam aqui (e não em ai.Evaluation) para o Game não depender do pacote ai.
+ */
+public final class PieceSquareTables {
+
+    // --- Valores das Peças para a Função de Avaliação ---
+    public static final int PAWN_VALUE = 100;   // [cite: 209]
+    public static final int KNIGHT_VALUE = 320; // [cite: 210]
+    public static final int BISHOP_VALUE = 330; // [cite: 211]
+    public static final int ROOK_VALUE = 500;   // [cite: 212]
+    public static final int QUEEN_VALUE = 900;  // [cite: 213]
+    public static final int KING_VALUE = 20000; // [cite: 214]
+
+    // Indexado por Piece.PAWN..KING
+    private static final int[] VALUES = {
+            PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, KING_VALUE
+    };
+
+    // Peso de cada tipo na fase do jogo: 24 = todas as peças menores e maiores no tabuleiro
+    public static final int MAX_PHASE = 24;
+    private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+
+    // Tabelas das Brancas, escritas como o tabuleiro é visto (8ª fileira em cima = casas 0..7)
+    private static final int[] PAWN_MG = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    // No final o que importa no peão é o quanto ele já avançou
+    private static final int[] PAWN_EG = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             20,  20,  20,  20,  20,  20,  20,  20,
+             10,  10,  10,  10,  10,  10,  10,  10,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    // Meio-jogo: rei abrigado atrás dos peões, de preferência já rocado
+    private static final int[] KING_MG = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+    // Final: rei ativo, no centro
+    private static final int[] KING_EG = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    /** [índice da peça 0..11][casa 0..63]: material + posição, com sinal (Pretas negativas). */
+    private static final int[][] MG = new int[12][64];
+    private static final int[][] EG = new int[12][64];
+
+    static {
+        int[][] mg = {PAWN_MG, KNIGHT, BISHOP, ROOK, QUEEN, KING_MG};
+        int[][] eg = {PAWN_EG, KNIGHT, BISHOP, ROOK, QUEEN, KING_EG};
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            int value = VALUES[type];
+            for (int sq = 0; sq < 64; sq++) {
+                MG[type][sq] = value + mg[type][sq];
+                EG[type][sq] = value + eg[type][sq];
+                // Pretas: a mesma tabela espelhada verticalmente (a8 <-> a1), com sinal trocado
+                MG[type + 6][sq] = -(value + mg[type][sq ^ 56]);
+                EG[type + 6][sq] = -(value + eg[type][sq ^ 56]);
+            }
+        }
+    }
+
+    private PieceSquareTables() { }
+
+    /** Valor material de um tipo de peça (Piece.PAWN..KING). */
+    public static int pieceValue(int type) {
+        return VALUES[type];
+    }
+
+    /** Contribuição de meio-jogo da peça (Piece.getIndex()) na casa. */
+    public static int midgame(int pieceIndex, int sq) {
+        return MG[pieceIndex][sq];
+    }
+
+    /** Contribuição de final da peça (Piece.getIndex()) na casa. */
+    public static int endgame(int pieceIndex, int sq) {
+        return EG[pieceIndex][sq];
+    }
+
+    /** Peso do tipo (Piece.PAWN..KING) na fase do jogo. */
+    public static int phase(int type) {
+        return PHASE[type];
+    }
+
+    /** Interpola entre meio-jogo e final; 'phase' acima de MAX_PHASE (promoções) conta como MAX_PHASE. */
+    public static int taper(int midgame, int endgame, int phase) {
+        int p = Math.min(phase, MAX_PHASE);
+        return (midgame * p + endgame * (MAX_PHASE - p)) / MAX_PHASE;
+    }
+}
@@ -0,0 +1,39 @@
+package controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves aleatórias do hash Zobrist.
+ * A semente é fixa para que a mesma posição tenha sempre a mesma chave entre execuções
+ * (necessário para qualquer arquivo gravado em disco indexado pela chave).
+ */
+final class Zobrist {
+
+    /** [índice da peça 0..11][casa 0..63] */
+    static final long[][] PIECE = new long[12][64];
+    /** Aplicada quando é a vez das Pretas. */
+    static final long BLACK_TO_MOVE;
+    /** Uma chave por combinação dos 4 direitos de roque (máscara de 4 bits). */
+    static final long[] CASTLING = new long[16];
+    /** Coluna da casa de en passant. */
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x2F6E2B1C4D3A5968L);
+        for (long[] squares : PIECE) {
+            for (int sq = 0; sq < 64; sq++) squares[sq] = rnd.nextLong();
+        }
+        BLACK_TO_MOVE = rnd.nextLong();
+        // Cada direito tem sua chave; a da máscara é o XOR dos direitos presentes
+        long[] rights = new long[4];
+        for (int i = 0; i < 4; i++) rights[i] = rnd.nextLong();
+        for (int mask = 0; mask < 16; mask++) {
+            for (int i = 0; i < 4; i++) {
+                if ((mask & (1 << i)) != 0) CASTLING[mask] ^= rights[i];
+            }
+        }
+        for (int f = 0; f < 8; f++) EN_PASSANT_FILE[f] = rnd.nextLong();
+    }
+
+    private Zobrist() { }
+}
@@ -0,0 +1,118 @@
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Tabelas de ataque para bitboards (casas indexadas como em BitBoard: row * 8 + column).
+ * Cavalo, rei e peão usam tabelas pré-calculadas; torre e bispo percorrem raios, parando
+ * no primeiro bloqueador da ocupação informada.
+ */
+public final class Attacks {
+
+    public static final long[] KNIGHT = new long[64];
+    public static final long[] KING = new long[64];
+    /** PAWN[BitBoard.WHITE ou BLACK][casa]: casas atacadas por um peão daquela cor na casa. */
+    public static final long[][] PAWN = new long[2][64];
+
+    // Direções: N, S, W, E, NW, NE, SW, SE (N = row - 1, em direção às Pretas)
+    private static final int[] DROW = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DCOL = {0, 0, -1, 1, -1, 1, -1, 1};
+    // RAYS[dir][casa]: todas as casas a partir da casa (exclusive) naquela direção
+    private static final long[][] RAYS = new long[8][64];
+    // Direção oposta de cada uma acima (N <-> S, W <-> E, NW <-> SE, NE <-> SW)
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+    // BETWEEN[a][b]: casas estritamente entre a e b, se alinhadas; LINE[a][b]: a linha inteira
+    // (de borda a borda) que passa por a e b. Zero quando não estão alinhadas.
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knight = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            for (int[] d : knight) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int dir = 0; dir < 8; dir++) {
+                KING[sq] |= bit(r + DROW[dir], c + DCOL[dir]);
+                for (int rr = r + DROW[dir], cc = c + DCOL[dir]; inside(rr, cc); rr += DROW[dir], cc += DCOL[dir]) {
+                    RAYS[dir][sq] |= bit(rr, cc);
+                }
+            }
+            PAWN[BitBoard.WHITE][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            PAWN[BitBoard.BLACK][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long line = RAYS[dir][a] | RAYS[OPPOSITE[dir]][a] | 1L << a;
+                for (long bb = RAYS[dir][a]; bb != 0; bb &= bb - 1) {
+                    int b = Long.numberOfTrailingZeros(bb);
+                    BETWEEN[a][b] = RAYS[dir][a] & ~RAYS[dir][b] & ~(1L << b);
+                    LINE[a][b] = line;
+                }
+            }
+        }
+    }
+
+    private Attacks() { }
+
+    public static long rook(int sq, long occupied) {
+        return ray(0, sq, occupied) | ray(1, sq, occupied) | ray(2, sq, occupied) | ray(3, sq, occupied);
+    }
+
+    public static long bishop(int sq, long occupied) {
+        return ray(4, sq, occupied) | ray(5, sq, occupied) | ray(6, sq, occupied) | ray(7, sq, occupied);
+    }
+
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    /** Casas estritamente entre 'a' e 'b' (0 se não estiverem na mesma linha, coluna ou diagonal). */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /** Linha completa que passa por 'a' e 'b' (0 se não estiverem alinhadas). */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /** Peças (das duas cores) que atacam a casa, considerando a ocupação informada. */
+    public static long attackersTo(BitBoard board, int sq, long occupied) {
+        long queens = board.bitboard(Piece.QUEEN, true) | board.bitboard(Piece.QUEEN, false);
+        long rooks = board.bitboard(Piece.ROOK, true) | board.bitboard(Piece.ROOK, false) | queens;
+        long bishops = board.bitboard(Piece.BISHOP, true) | board.bitboard(Piece.BISHOP, false) | queens;
+        return (PAWN[BitBoard.BLACK][sq] & board.bitboard(Piece.PAWN, true))
+                | (PAWN[BitBoard.WHITE][sq] & board.bitboard(Piece.PAWN, false))
+                | (KNIGHT[sq] & (board.bitboard(Piece.KNIGHT, true) | board.bitboard(Piece.KNIGHT, false)))
+                | (KING[sq] & (board.bitboard(Piece.KING, true) | board.bitboard(Piece.KING, false)))
+                | (rook(sq, occupied) & rooks)
+                | (bishop(sq, occupied) & bishops);
+    }
+
+    /** Verdadeiro se alguma peça da cor 'byWhite' ataca a casa. */
+    public static boolean isAttacked(BitBoard board, int sq, boolean byWhite) {
+        return (attackersTo(board, sq, board.occupancy()) & board.colorMask(byWhite)) != 0;
+    }
+
+    /** Raio numa direção até o primeiro bloqueador (inclusive). */
+    private static long ray(int dir, int sq, long occupied) {
+        long attacks = RAYS[dir][sq];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            // direções com índice crescente (S, E, SW, SE) encontram primeiro o bit mais baixo
+            int first = (DROW[dir] * 8 + DCOL[dir]) > 0
+                    ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[dir][first];
+        }
+        return attacks;
+    }
+
+    private static boolean inside(int r, int c) {
+        return r >= 0 && r < 8 && c >= 0 && c < 8;
+    }
+
+    private static long bit(int r, int c) {
+        return inside(r, c) ? 1L << (r * 8 + c) : 0L;
+    }
+}
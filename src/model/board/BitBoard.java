@@ -0,0 +1,114 @@
+package model.board;
+
+import model.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabuleiro baseado em bitboards: 12 longs (um por tipo/cor de peça) mais máscaras de ocupação.
+ * A geração de lances (controller.Game) lê só os bitboards. A grade de peças herdada de Board
+ * continua sendo mantida a cada set(), para get/set/pieces e porque as flags "moved" dos
+ * objetos Piece guardam os direitos de roque; copy() por isso ainda clona as peças.
+ *
+ * Casas são indexadas por row * 8 + column (0 = a8, 63 = h1), mesma convenção de Position.
+ */
+public class BitBoard extends Board {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Um bitboard por peça: índice = tipo (Piece.PAWN..KING) + 6 para as pretas
+    private final long[] pieceBB = new long[12];
+    // Ocupação por cor (WHITE/BLACK) e total
+    private final long[] colorBB = new long[2];
+    private long occupied;
+
+    // ==== conversões de casa ====
+
+    public static int square(int row, int column) { return row * 8 + column; }
+
+    public static int square(Position p) { return p.getRow() * 8 + p.getColumn(); }
+
+    public static int rowOf(int sq) { return sq >>> 3; }
+
+    public static int columnOf(int sq) { return sq & 7; }
+
+    // ==== consultas primitivas ====
+
+    /** Bitboard das peças de um índice 0..11 (ver Piece.getIndex()). */
+    public long bitboard(int pieceIndex) { return pieceBB[pieceIndex]; }
+
+    /** Bitboard de um tipo de peça para uma cor. */
+    public long bitboard(int type, boolean white) { return pieceBB[white ? type : type + 6]; }
+
+    public long colorMask(boolean white) { return colorBB[white ? WHITE : BLACK]; }
+
+    public long occupancy() { return occupied; }
+
+    /** Casa do rei da cor pedida, ou -1 se não houver rei. */
+    public int kingSquare(boolean white) {
+        long k = bitboard(Piece.KING, white);
+        return k == 0 ? -1 : Long.numberOfTrailingZeros(k);
+    }
+
+    // ==== fachada compatível com Board ====
+
+    @Override
+    public void set(Position p, Piece piece) {
+        if (!isInside(p)) return;
+        set(square(p), piece);
+    }
+
+    /** Coloca (ou remove, se null) a peça na casa 0..63, mantendo os bitboards. */
+    public void set(int sq, Piece piece) {
+        Piece old = pieceAt(sq);
+        if (old != null) clearBits(old, sq);
+        grid[sq >>> 3][sq & 7] = piece;
+        if (piece != null) {
+            setBits(piece, sq);
+            piece.setSquare(Square.of(sq));
+        }
+    }
+
+    /** Lista as peças de uma cor percorrendo a máscara de ocupação. */
+    @Override
+    public List<Piece> pieces(boolean white) {
+        List<Piece> out = new ArrayList<>(16);
+        for (long bb = colorMask(white); bb != 0; bb &= bb - 1) {
+            out.add(pieceAt(Long.numberOfTrailingZeros(bb)));
+        }
+        return out;
+    }
+
+    @Override
+    public BitBoard copy() {
+        BitBoard b = new BitBoard();
+        for (long bb = occupied; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            Piece cp = pieceAt(sq).copyFor(b);
+            b.grid[sq >>> 3][sq & 7] = cp;
+            cp.setSquare(Square.of(sq));
+        }
+        System.arraycopy(pieceBB, 0, b.pieceBB, 0, 12);
+        System.arraycopy(colorBB, 0, b.colorBB, 0, 2);
+        b.occupied = occupied;
+        return b;
+    }
+
+    // ==== manutenção das máscaras ====
+
+    private void setBits(Piece piece, int sq) {
+        long bit = 1L << sq;
+        pieceBB[piece.getIndex()] |= bit;
+        colorBB[piece.isWhite() ? WHITE : BLACK] |= bit;
+        occupied |= bit;
+    }
+
+    private void clearBits(Piece piece, int sq) {
+        long bit = ~(1L << sq);
+        pieceBB[piece.getIndex()] &= bit;
+        colorBB[piece.isWhite() ? WHITE : BLACK] &= bit;
+        occupied &= bit;
+    }
+}
@@ -6,7 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Board {
-    private final Piece[][] grid = new Piece[8][8];
+    protected final Piece[][] grid = new Piece[8][8];
 
     /** Verifica se a posição está dentro do tabuleiro (0..7). */
     public boolean isInside(Position p) {
@@ -17,6 +17,11 @@ public class Board {
         return isInside(p) ? grid[p.getRow()][p.getColumn()] : null;
     }
 
+    /** Peça na casa 0..63 (sem alocar Position). */
+    public Piece pieceAt(int sq) {
+        return grid[sq >>> 3][sq & 7];
+    }
+
     public void set(Position p, Piece piece) {
         if (!isInside(p)) return;
         grid[p.getRow()][p.getColumn()] = piece;
@@ -51,7 +56,7 @@ public class Board {
                 if (p != null) {
                     Piece cp = p.copyFor(b);
                     b.grid[r][c] = cp;
-                    cp.setPosition(new Position(r, c));
+                    cp.setSquare(Square.of(r, c));
                 }
             }
         }
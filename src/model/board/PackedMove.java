@@ -0,0 +1,121 @@
+package model.board;
+
+import model.pieces.Pawn;
+import model.pieces.Piece;
+
+/**
+ * Lance compactado num int, para listas de lances, killers, histórico e tabela de
+ * transposição sem objetos. Só métodos estáticos de codificação/decodificação.
+ *
+ * <pre>
+ *   bits  0-5   casa de origem (0..63, ver BitBoard.square)
+ *   bits  6-11  casa de destino
+ *   bits 12-14  promoção: 0 = nenhuma, 1 = N, 2 = B, 3 = R, 4 = Q
+ *   bits 16-19  flags: CAPTURE, EN_PASSANT, CASTLE, DOUBLE_PUSH
+ * </pre>
+ *
+ * Os 16 bits baixos (key) já identificam o lance numa posição; é o que a tabela de
+ * transposição, os killers e o contra-lance guardam. Comparações entre um lance gerado e um
+ * lance guardado devem usar key(). O valor 0 significa "nenhum lance".
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int PROMOTION_NONE = 0;
+    public static final int PROMOTION_KNIGHT = 1;
+    public static final int PROMOTION_BISHOP = 2;
+    public static final int PROMOTION_ROOK = 3;
+    public static final int PROMOTION_QUEEN = 4;
+
+    public static final int CAPTURE = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;   // sempre junto de CAPTURE
+    public static final int CASTLE = 1 << 18;       // lance do rei; a torre vem implícita
+    public static final int DOUBLE_PUSH = 1 << 19;
+
+    private static final int KEY_MASK = 0xFFFF;
+
+    private PackedMove() { }
+
+    public static int encode(int from, int to, int promotion, int flags) {
+        return from | to << 6 | promotion << 12 | flags;
+    }
+
+    public static int from(int move) { return move & 63; }
+
+    public static int to(int move) { return (move >>> 6) & 63; }
+
+    public static int promotion(int move) { return (move >>> 12) & 7; }
+
+    /** Só os 16 bits de origem, destino e promoção (sem flags). */
+    public static int key(int move) { return move & KEY_MASK; }
+
+    public static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+
+    public static boolean isEnPassant(int move) { return (move & EN_PASSANT) != 0; }
+
+    public static boolean isCastle(int move) { return (move & CASTLE) != 0; }
+
+    public static boolean isPromotion(int move) { return (move & (7 << 12)) != 0; }
+
+    /** Nem captura nem promoção (candidato a killer e histórico). */
+    public static boolean isQuiet(int move) { return (move & (CAPTURE | 7 << 12)) == 0; }
+
+    // ==== promoção ====
+
+    public static int promotionCode(Character promotion) {
+        if (promotion == null) return PROMOTION_NONE;
+        return switch (Character.toUpperCase(promotion)) {
+            case 'N' -> PROMOTION_KNIGHT;
+            case 'B' -> PROMOTION_BISHOP;
+            case 'R' -> PROMOTION_ROOK;
+            default -> PROMOTION_QUEEN;
+        };
+    }
+
+    /** Letra da promoção ('N', 'B', 'R', 'Q') ou null. */
+    public static Character promotionPiece(int code) {
+        return switch (code) {
+            case PROMOTION_KNIGHT -> 'N';
+            case PROMOTION_BISHOP -> 'B';
+            case PROMOTION_ROOK -> 'R';
+            case PROMOTION_QUEEN -> 'Q';
+            default -> null;
+        };
+    }
+
+    // ==== conversão de/para Move (GUI) ====
+
+    /** Compacta um Move; as flags vêm dos campos do próprio Move. */
+    public static int fromMove(Move m) {
+        int from = BitBoard.square(m.getFrom());
+        int to = BitBoard.square(m.getTo());
+        int flags = 0;
+        if (m.getCaptured() != null || m.isEnPassant()) flags |= CAPTURE;
+        if (m.isEnPassant()) flags |= EN_PASSANT;
+        if (m.isCastleKingSide() || m.isCastleQueenSide()) flags |= CASTLE;
+        if (m.getMoved() instanceof Pawn && Math.abs(to - from) == 16) flags |= DOUBLE_PUSH;
+        return encode(from, to, promotionCode(m.getPromotion()), flags);
+    }
+
+    /** Move completo para um lance compactado, lido no tabuleiro antes de o lance ser jogado. */
+    public static Move toMove(int move, Board board) {
+        int from = from(move), to = to(move);
+        Piece moved = board.pieceAt(from);
+        Piece captured = board.pieceAt(to);
+        if (isEnPassant(move) && moved != null) {
+            captured = board.pieceAt(to + (moved.isWhite() ? 8 : -8));
+        }
+        boolean castle = isCastle(move);
+        return new Move(new Position(from >>> 3, from & 7), new Position(to >>> 3, to & 7),
+                moved, captured, castle && (to & 7) == 6, castle && (to & 7) == 2,
+                isEnPassant(move), promotionPiece(promotion(move)));
+    }
+
+    /** Notação de coordenadas ("e2e4", "e7e8q"), como em perft e UCI. */
+    public static String toString(int move) {
+        String text = Square.of(from(move)).toString() + Square.of(to(move));
+        Character promotion = promotionPiece(promotion(move));
+        return promotion == null ? text : text + Character.toLowerCase(promotion);
+    }
+}
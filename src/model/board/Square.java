@@ -0,0 +1,39 @@
+package model.board;
+
+/**
+ * Casa do tabuleiro imutável. Existem só 64 instâncias (Square.of), então pode ser
+ * compartilhada à vontade, ao contrário de Position, que tem setters.
+ *
+ * Índice = row * 8 + column (0 = a8, 63 = h1), a mesma convenção de BitBoard.square.
+ */
+public final class Square {
+
+    private static final Square[] ALL = new Square[64];
+    static {
+        for (int i = 0; i < 64; i++) ALL[i] = new Square(i);
+    }
+
+    private final int index;
+
+    private Square(int index) {
+        this.index = index;
+    }
+
+    public static Square of(int index) { return ALL[index]; }
+
+    public static Square of(int row, int column) { return ALL[row * 8 + column]; }
+
+    public static Square of(Position p) { return ALL[p.getRow() * 8 + p.getColumn()]; }
+
+    public int index() { return index; }
+
+    public int row() { return index >>> 3; }
+
+    public int column() { return index & 7; }
+
+    /** Position nova equivalente (para a API antiga, que espera objetos mutáveis próprios). */
+    public Position toPosition() { return new Position(index >>> 3, index & 7); }
+
+    @Override
+    public String toString() { return (char) ('a' + column()) + String.valueOf(8 - row()); }
+}
@@ -7,7 +7,7 @@ import java.util.*;
 
 
 public class Bishop extends Piece {
-public Bishop(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "B"; }
+public Bishop(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "B"; } @Override public int getType(){ return BISHOP; }
 @Override public Piece copyFor(Board newBoard){ Bishop r=new Bishop(newBoard, isWhite); r.moved=this.moved; return r; }
 
 
@@ -16,8 +16,12 @@ List<Position> s = new ArrayList<>();
 ray(s,-1,-1); ray(s,-1,1); ray(s,1,-1); ray(s,1,1);
 return s;
 }
+@Override public int generateMoves(int[] moves, int count){
+count=addRay(moves,count,-1,-1); count=addRay(moves,count,-1,1); count=addRay(moves,count,1,-1); count=addRay(moves,count,1,1);
+return count;
+}
 private void ray(List<Position> s, int dr, int dc){
-int r=position.getRow()+dr, c=position.getColumn()+dc;
+int r=square.row()+dr, c=square.column()+dc;
 while(new Position(r,c).isValid()){
 Position p=new Position(r,c); var q=board.get(p); s.add(p);
 if(q!=null){ if(q.isWhite()==this.isWhite) s.remove(s.size()-1); break; }
@@ -7,13 +7,18 @@ import java.util.*;
 
 
 public class Knight extends Piece {
-public Knight(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "N"; }
+public Knight(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "N"; } @Override public int getType(){ return KNIGHT; }
 @Override public Piece copyFor(Board newBoard){ Knight r=new Knight(newBoard, isWhite); r.moved=this.moved; return r; }
 
 
 @Override public List<Position> getPossibleMoves(){
 List<Position> s = new ArrayList<>();
 int[][] d={{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
-for(int[] v:d){ int r=position.getRow()+v[0], c=position.getColumn()+v[1]; addIfFreeOrEnemy(s,r,c);} return s;
+for(int[] v:d){ int r=square.row()+v[0], c=square.column()+v[1]; addIfFreeOrEnemy(s,r,c);} return s;
+}
+private static final int[][] JUMPS={{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
+@Override public int generateMoves(int[] moves, int count){
+for(int[] v:JUMPS) count=addStep(moves,count,v[0],v[1]);
+return count;
 }
 }
\ No newline at end of file
@@ -7,30 +7,60 @@ import java.util.*;
 
 
 public class Pawn extends Piece {
-public Pawn(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "P"; }
+public Pawn(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "P"; } @Override public int getType(){ return PAWN; }
 @Override public Piece copyFor(Board newBoard){ Pawn r=new Pawn(newBoard, isWhite); r.moved=this.moved; return r; }
 
 
 @Override public List<Position> getPossibleMoves(){
 List<Position> s = new ArrayList<>();
 int dir = isWhite ? -1 : 1;
-Position f1 = new Position(position.getRow()+dir, position.getColumn());
+Position f1 = new Position(square.row()+dir, square.column());
 if(f1.isValid() && board.get(f1)==null){ s.add(f1);
-Position f2 = new Position(position.getRow()+2*dir, position.getColumn());
+Position f2 = new Position(square.row()+2*dir, square.column());
 if(!moved && f2.isValid() && board.get(f2)==null) s.add(f2);
 }
-Position l = new Position(position.getRow()+dir, position.getColumn()-1);
-Position r = new Position(position.getRow()+dir, position.getColumn()+1);
+Position l = new Position(square.row()+dir, square.column()-1);
+Position r = new Position(square.row()+dir, square.column()+1);
 if(l.isValid() && board.get(l)!=null && board.get(l).isWhite()!=isWhite) s.add(l);
 if(r.isValid() && board.get(r)!=null && board.get(r).isWhite()!=isWhite) s.add(r);
 return s; // en passant será tratado no controller
 }
 
 
+// Mesma regra de getPossibleMoves; chegando na última fileira gera as quatro promoções (Dama primeiro).
+// En passant e roque ficam com o controller.Game, que conhece o lance anterior e os direitos.
+@Override public int generateMoves(int[] moves, int count){
+int dir = isWhite ? -1 : 1;
+int from = square.index(), row = square.row(), col = square.column();
+int r1 = row+dir;
+if(r1<0 || r1>7) return count;
+boolean promotes = r1==0 || r1==7;
+if(board.pieceAt(r1*8+col)==null){
+count = add(moves, count, from, r1*8+col, promotes, 0);
+int r2 = row+2*dir;
+if(!moved && r2>=0 && r2<8 && board.pieceAt(r2*8+col)==null) moves[count++] = PackedMove.encode(from, r2*8+col, 0, PackedMove.DOUBLE_PUSH);
+}
+for(int dc=-1; dc<=1; dc+=2){
+int c = col+dc; if(c<0 || c>7) continue;
+Piece q = board.pieceAt(r1*8+c);
+if(q!=null && q.isWhite()!=isWhite) count = add(moves, count, from, r1*8+c, promotes, PackedMove.CAPTURE);
+}
+return count;
+}
+private static int add(int[] moves, int count, int from, int to, boolean promotes, int flags){
+if(!promotes){ moves[count++] = PackedMove.encode(from, to, 0, flags); return count; }
+moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_QUEEN, flags);
+moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_KNIGHT, flags);
+moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_ROOK, flags);
+moves[count++] = PackedMove.encode(from, to, PackedMove.PROMOTION_BISHOP, flags);
+return count;
+}
+
+
 @Override public List<Position> getAttacks(){
 List<Position> s = new ArrayList<>(); int dir = isWhite ? -1 : 1;
-Position l = new Position(position.getRow()+dir, position.getColumn()-1);
-Position r = new Position(position.getRow()+dir, position.getColumn()+1);
+Position l = new Position(square.row()+dir, square.column()-1);
+Position r = new Position(square.row()+dir, square.column()+1);
 if(l.isValid()) s.add(l); if(r.isValid()) s.add(r); return s;
 }
 }
\ No newline at end of file
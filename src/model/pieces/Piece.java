@@ -3,12 +3,18 @@ package model.pieces;
 
 
 import model.board.Board;
+import model.board.PackedMove;
 import model.board.Position;
+import model.board.Square;
 import java.util.*;
 
 
 public abstract class Piece {
-protected Position position;
+// Tipos de peça (índice nos bitboards: tipo + 6 para as pretas)
+public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+
+
+protected Square square;
 protected final boolean isWhite;
 protected final Board board;
 protected boolean moved = false;
@@ -20,33 +26,64 @@ this.board = board; this.isWhite = isWhite;
 
 
 public boolean isWhite(){ return isWhite; }
-public Position getPosition(){ return position; }
-public void setPosition(Position position){ this.position = position; }
+// Position nova a cada chamada (Position é mutável e não pode ser compartilhada)
+public Position getPosition(){ return square == null ? null : square.toPosition(); }
+public void setPosition(Position position){ this.square = position == null ? null : Square.of(position); }
+public Square getSquare(){ return square; }
+public void setSquare(Square square){ this.square = square; }
 public boolean hasMoved(){ return moved; }
 public void setMoved(boolean moved){ this.moved = moved; }
 
 
 // Pseudo-movimentos (não filtram xeque ao próprio rei)
 public abstract List<Position> getPossibleMoves();
+// Mesmos pseudo-movimentos, sem alocar: escreve lances PackedMove em moves[count..] e devolve o novo total
+public abstract int generateMoves(int[] moves, int count);
 // Casas atacadas (para peão difere dos possíveis)
 public List<Position> getAttacks(){ return getPossibleMoves(); }
 
 
 public abstract String getSymbol(); // K,Q,R,B,N,P
+public abstract int getType();       // PAWN..KING
+// Índice 0..11 usado pelo BitBoard (brancas 0..5, pretas 6..11)
+public int getIndex(){ return isWhite ? getType() : getType() + 6; }
 
 
 // Fábrica de cópia para outro board
 public abstract Piece copyFor(Board newBoard);
 
 
-protected boolean empty(int r, int c){ return new Position(r,c).isValid() && board.get(new Position(r,c))==null; }
+protected static boolean inside(int r, int c){ return r>=0 && r<8 && c>=0 && c<8; }
+protected boolean empty(int r, int c){ return inside(r,c) && board.pieceAt(r*8+c)==null; }
 protected boolean enemy(int r, int c){
-Position p = new Position(r,c);
-if(!p.isValid()) return false; Piece q = board.get(p);
+if(!inside(r,c)) return false; Piece q = board.pieceAt(r*8+c);
 return q!=null && q.isWhite()!=this.isWhite;
 }
 protected void addIfFreeOrEnemy(List<Position> list, int r, int c){
-Position p = new Position(r,c); if(!p.isValid()) return;
-var q = board.get(p); if(q==null || q.isWhite()!=this.isWhite) list.add(p);
+if(!inside(r,c)) return;
+var q = board.pieceAt(r*8+c); if(q==null || q.isWhite()!=this.isWhite) list.add(new Position(r,c));
+}
+
+
+// ==== auxiliares da geração sem alocação ====
+// Um passo (cavalo, rei): casa vazia ou com inimiga
+protected int addStep(int[] moves, int count, int dr, int dc){
+int r = square.row()+dr, c = square.column()+dc;
+if(r<0 || r>7 || c<0 || c>7) return count;
+Piece q = board.pieceAt(r*8+c);
+if(q==null || q.isWhite!=isWhite) moves[count++] = PackedMove.encode(square.index(), r*8+c, 0, q==null ? 0 : PackedMove.CAPTURE);
+return count;
+}
+// Raio (bispo, torre, dama): casas vazias até a primeira peça, que entra se for inimiga
+protected int addRay(int[] moves, int count, int dr, int dc){
+int from = square.index();
+int r = square.row()+dr, c = square.column()+dc;
+while(r>=0 && r<8 && c>=0 && c<8){
+Piece q = board.pieceAt(r*8+c);
+if(q==null || q.isWhite!=isWhite) moves[count++] = PackedMove.encode(from, r*8+c, 0, q==null ? 0 : PackedMove.CAPTURE);
+if(q!=null) break;
+r+=dr; c+=dc;
+}
+return count;
+}
 }
-}
\ No newline at end of file
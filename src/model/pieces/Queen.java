@@ -7,7 +7,7 @@ import java.util.*;
 
 
 public class Queen extends Piece {
-public Queen(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "Q"; }
+public Queen(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "Q"; } @Override public int getType(){ return QUEEN; }
 @Override public Piece copyFor(Board newBoard){ Queen q=new Queen(newBoard, isWhite); q.moved=this.moved; return q; }
 
 
@@ -19,8 +19,15 @@ return s;
 }
 
 
+@Override public int generateMoves(int[] moves, int count){
+count=addRay(moves,count,-1,0); count=addRay(moves,count,1,0); count=addRay(moves,count,0,-1); count=addRay(moves,count,0,1);
+count=addRay(moves,count,-1,-1); count=addRay(moves,count,-1,1); count=addRay(moves,count,1,-1); count=addRay(moves,count,1,1);
+return count;
+}
+
+
 private void ray(List<Position> s, int dr, int dc){
-int r=position.getRow()+dr, c=position.getColumn()+dc;
+int r=square.row()+dr, c=square.column()+dc;
 while(new Position(r,c).isValid()){
 Position p=new Position(r,c); var q=board.get(p); s.add(p);
 if(q!=null){ if(q.isWhite()==this.isWhite) s.remove(s.size()-1); break; }
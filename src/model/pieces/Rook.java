@@ -18,6 +18,11 @@ public class Rook extends Piece {
         return "R";
     }
 
+    @Override
+    public int getType() {
+        return ROOK;
+    }
+
     /** Your Piece hierarchy expects getPossibleMoves() with no parameters. */
     @Override
     public List<Position> getPossibleMoves() {
@@ -33,12 +38,22 @@ public class Rook extends Piece {
         return moves;
     }
 
+    @Override
+    public int generateMoves(int[] moves, int count) {
+        count = addRay(moves, count, -1, 0); // up
+        count = addRay(moves, count, 1, 0);  // down
+        count = addRay(moves, count, 0, -1); // left
+        count = addRay(moves, count, 0, 1);  // right
+        return count;
+    }
+
     /** Required by Board.copy(): clone this piece for a different Board. */
     @Override
     public Piece copyFor(Board newBoard) {
-        // If your Piece tracks "moved" state and exposes a getter, copy it here.
-        // For now we just clone color/board; Board.copy() will set the new position.
-        return new Rook(newBoard, this.isWhite());
+        // Board.copy() will set the new position; "moved" must follow the clone (castling rights).
+        Rook r = new Rook(newBoard, this.isWhite());
+        r.setMoved(this.hasMoved());
+        return r;
     }
 
     private void addRay(List<Position> acc, Position from, int dRow, int dCol) {
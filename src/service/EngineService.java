@@ -0,0 +1,288 @@
+package service;
+
+import controller.Game;
+import controller.Notation;
+import model.board.Move;
+import model.board.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço de motor para muitas partidas numa só JVM: um socket TCP local (só loopback) com um
+ * protocolo de texto, uma linha por comando. Cada conexão abre quantas sessões quiser (cada
+ * uma com o seu controller.Game); os pedidos de lance de todas as sessões vão para um único
+ * SearchScheduler com um número fixo de workers.
+ *
+ * <pre>
+ *   new [fen FEN]                          -> ok ID
+ *   position ID startpos|fen FEN [moves ...] -> ok
+ *   move ID LANCE                          -> ok              (notação de coordenadas: e2e4, e7e8q)
+ *   go ID [movetime MS] [deadline MS]      -> ok, e depois:  bestmove ID LANCE|none
+ *                                                            cancelled ID | expired ID | error ID ...
+ *   cancel ID                              -> ok
+ *   fen ID                                 -> ok FEN
+ *   close ID                               -> ok
+ *   quit                                   (fecha a conexão)
+ * </pre>
+ * Respostas de "go" chegam depois, marcadas com o ID, intercaladas com as dos outros comandos.
+ * 'deadline' é o prazo (a partir do pedido) para a resposta: se o pedido ainda estiver na fila
+ * quando ele vencer, volta "expired"; se já estiver em busca, a busca acaba no prazo.
+ *
+ * Pedidos velhos são cancelados: um "go", "move", "position" ou "close" na sessão cancela o
+ * "go" que ainda não respondeu (a resposta dele vira "cancelled"). Fechar a conexão fecha as
+ * sessões dela.
+ *
+ * Uso: java -cp out service.EngineService [--port N] [--workers N] [--hash MB]
+ */
+public final class EngineService {
+
+    private static final int DEFAULT_PORT = 7878;
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final long DEFAULT_MOVE_TIME_MS = 1000;
+    // Espera depois de um accept() que falhou, dobrando a cada falha seguida até o máximo
+    private static final long ACCEPT_BACKOFF_MIN_MS = 10;
+    private static final long ACCEPT_BACKOFF_MAX_MS = 1000;
+
+    private static final System.Logger LOG = System.getLogger(EngineService.class.getName());
+
+    private final ServerSocket server;
+    private final SearchScheduler scheduler;
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+
+    /** @param port porta local (0 = qualquer livre; ver getPort()). */
+    public EngineService(int port, int workers, int hashMb) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.scheduler = new SearchScheduler(workers, hashMb);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Aceita conexões até close() (ou até a thread ser interrompida); uma thread por conexão.
+     * Um accept() que falha (ex.: sem descritores de arquivo) vai para o log e espera um pouco
+     * antes de tentar de novo, em vez de girar.
+     */
+    public void serve() {
+        long backoff = 0;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                backoff = 0;
+                Thread t = new Thread(new Connection(socket), "engine-service-client");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (server.isClosed()) break;
+                backoff = backoff == 0 ? ACCEPT_BACKOFF_MIN_MS : Math.min(2 * backoff, ACCEPT_BACKOFF_MAX_MS);
+                LOG.log(System.Logger.Level.WARNING, "accept() falhou; nova tentativa em " + backoff + " ms", e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        server.close();
+        scheduler.shutdown();
+    }
+
+    /** Uma partida aberta por uma conexão. */
+    private static final class Session {
+        final long id;
+        Game game = new Game();
+        // "go" ainda sem resposta (null se não houver)
+        SearchRequest pending;
+
+        Session(long id) {
+            this.id = id;
+        }
+
+        void cancelPending() {
+            if (pending != null) pending.cancel();
+            pending = null;
+        }
+    }
+
+    /** Lê os comandos de um cliente; as sessões só são tocadas por esta thread. */
+    private final class Connection implements Runnable {
+
+        private final Socket socket;
+        private final Map<Long, Session> sessions = new HashMap<>();
+        private PrintWriter out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                out = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.equals("quit")) break;
+                    if (line.isEmpty()) continue;
+                    try {
+                        handle(line.split("\\s+"));
+                    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                        send("error " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                // Cliente caiu: as sessões são fechadas abaixo
+            } finally {
+                for (Session s : sessions.values()) s.cancelPending();
+                sessions.clear();
+            }
+        }
+
+        private void handle(String[] t) {
+            switch (t[0]) {
+                case "new" -> {
+                    Session s = new Session(nextSessionId.getAndIncrement());
+                    if (t.length > 1 && t[1].equals("fen")) s.game = Game.fromFen(joinFrom(t, 2, t.length));
+                    sessions.put(s.id, s);
+                    send("ok " + s.id);
+                }
+                case "position" -> {
+                    Session s = session(t[1]);
+                    s.cancelPending();
+                    s.game = position(t);
+                    send("ok");
+                }
+                case "move" -> {
+                    Session s = session(t[1]);
+                    int move = Notation.fromUci(s.game, t[2]);
+                    if (move == PackedMove.NONE) throw new IllegalArgumentException("lance ilegal: " + t[2]);
+                    s.cancelPending();
+                    Move m = s.game.toMove(move);
+                    s.game.move(m.getFrom(), m.getTo(), m.getPromotion());
+                    send("ok");
+                }
+                case "go" -> go(session(t[1]), t);
+                case "cancel" -> {
+                    session(t[1]).cancelPending();
+                    send("ok");
+                }
+                case "fen" -> send("ok " + session(t[1]).game.toFen());
+                case "close" -> {
+                    Session s = session(t[1]);
+                    s.cancelPending();
+                    sessions.remove(s.id);
+                    send("ok");
+                }
+                default -> throw new IllegalArgumentException("comando desconhecido: " + t[0]);
+            }
+        }
+
+        private void go(Session s, String[] t) {
+            long moveTime = DEFAULT_MOVE_TIME_MS;
+            long deadline = Long.MAX_VALUE;
+            boolean hasMoveTime = false;
+            for (int i = 2; i < t.length; i++) {
+                switch (t[i]) {
+                    case "movetime" -> {
+                        moveTime = Long.parseLong(t[++i]);
+                        hasMoveTime = true;
+                    }
+                    case "deadline" -> deadline = System.nanoTime() + Long.parseLong(t[++i]) * 1_000_000;
+                    default -> throw new IllegalArgumentException("opção desconhecida: " + t[i]);
+                }
+            }
+            // Só com prazo, a busca usa o tempo todo até ele
+            if (!hasMoveTime && deadline != Long.MAX_VALUE) moveTime = Long.MAX_VALUE;
+
+            s.cancelPending();
+            SearchRequest request = new SearchRequest(s.id, s.game.snapshot(), moveTime, deadline);
+            s.pending = request;
+            send("ok");
+            request.result.whenComplete((move, error) -> send(outcome(request, move, error)));
+            scheduler.submit(request);
+        }
+
+        private String outcome(SearchRequest request, Move move, Throwable error) {
+            long id = request.sessionId;
+            if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+            if (error instanceof CancellationException) return "cancelled " + id;
+            if (error instanceof TimeoutException) return "expired " + id;
+            if (error != null) return "error " + id + " " + error;
+            return "bestmove " + id + " " + (move == null ? "none" : Notation.toUci(move));
+        }
+
+        private Session session(String id) {
+            Session s = sessions.get(Long.parseLong(id));
+            if (s == null) throw new IllegalArgumentException("sessão desconhecida: " + id);
+            return s;
+        }
+
+        /** "position ID startpos|fen FEN [moves ...]". */
+        private Game position(String[] t) {
+            int movesAt = 3;
+            while (movesAt < t.length && !t[movesAt].equals("moves")) movesAt++;
+            Game game = switch (t[2]) {
+                case "startpos" -> new Game();
+                case "fen" -> Game.fromFen(joinFrom(t, 3, movesAt));
+                default -> throw new IllegalArgumentException("posição inválida: " + t[2]);
+            };
+            for (int i = movesAt + 1; i < t.length; i++) {
+                int move = Notation.fromUci(game, t[i]);
+                if (move == PackedMove.NONE) throw new IllegalArgumentException("lance ilegal: " + t[i]);
+                Move m = game.toMove(move);
+                game.move(m.getFrom(), m.getTo(), m.getPromotion());
+            }
+            return game;
+        }
+
+        private static String joinFrom(String[] t, int from, int to) {
+            return String.join(" ", Arrays.copyOfRange(t, from, to));
+        }
+
+        // Escrita pela thread da conexão e pelos workers (respostas de "go")
+        private void send(String line) {
+            synchronized (this) {
+                out.println(line);
+                out.flush();
+            }
+        }
+    }
+
+    // ==== linha de comando ====
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT, hashMb = DEFAULT_HASH_MB;
+        int workers = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--workers" -> workers = Integer.parseInt(args[++i]);
+                case "--hash" -> hashMb = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        EngineService service = new EngineService(port, Math.max(1, workers), hashMb);
+        System.out.println("Serviço na porta " + service.getPort() + " com " + workers + " workers");
+        service.serve();
+    }
+}
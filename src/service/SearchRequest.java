@@ -0,0 +1,61 @@
+package service;
+
+import ai.TimeManager;
+import controller.Game;
+import model.board.Move;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Um pedido de lance na fila do SearchScheduler. O resultado sai em 'result': o lance (null
+ * sem lances legais), CancellationException se o pedido foi cancelado (ficou velho) ou
+ * TimeoutException se o prazo venceu antes de um worker pegá-lo.
+ */
+final class SearchRequest {
+
+    final long sessionId;
+    // Cópia exclusiva da posição, tirada quando o pedido foi feito
+    final Game position;
+    final long moveTimeMillis;
+    // System.nanoTime() até o qual a resposta ainda serve (Long.MAX_VALUE = sem prazo)
+    final long deadlineNanos;
+    final CompletableFuture<Move> result = new CompletableFuture<>();
+
+    // Relógio da busca, depois que um worker começou (guardado por 'this')
+    private TimeManager time;
+
+    SearchRequest(long sessionId, Game position, long moveTimeMillis, long deadlineNanos) {
+        this.sessionId = sessionId;
+        this.position = position;
+        this.moveTimeMillis = moveTimeMillis;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Chamado pelo worker: o relógio da busca (tempo por lance, sem passar do prazo), ou null
+     * se o pedido já foi cancelado ou o prazo venceu na fila. O timer do SearchScheduler já
+     * expira os pedidos parados na fila; o teste aqui cobre o pedido que chega ao worker
+     * junto com o prazo.
+     */
+    synchronized TimeManager start() {
+        if (result.isDone()) return null;
+        long remaining = deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : (deadlineNanos - System.nanoTime()) / 1_000_000;
+        if (remaining <= 0) {
+            result.completeExceptionally(new TimeoutException("prazo vencido na fila"));
+            return null;
+        }
+        time = TimeManager.forMoveTime(Math.min(moveTimeMillis, remaining));
+        return time;
+    }
+
+    /** Chamado pelo timer no prazo: expira o pedido se nenhum worker o pegou ainda. */
+    synchronized void expire() {
+        if (time == null) result.completeExceptionally(new TimeoutException("prazo vencido na fila"));
+    }
+
+    /** Cancela o pedido; se a busca já começou, ela para no próximo teste do relógio. */
+    synchronized void cancel() {
+        if (result.cancel(false) && time != null) time.stop();
+    }
+}
@@ -0,0 +1,86 @@
+package service;
+
+import ai.MinimaxAI;
+import ai.SearchMonitor;
+import ai.TimeManager;
+import ai.TranspositionTable;
+import model.board.Move;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool fixo de workers de busca compartilhado por todas as sessões do EngineService. Cada
+ * worker tem a sua MinimaxAI (e a sua tabela de transposição), reaproveitada entre pedidos
+ * de sessões diferentes: as chaves Zobrist separam as posições, e a JIT e as tabelas ficam
+ * aquecidas.
+ *
+ * Justiça entre sessões: cada sessão tem no máximo um pedido vivo (um pedido novo cancela o
+ * anterior, ver EngineService), e a fila é FIFO; então cada sessão entra uma vez por "volta"
+ * e nenhuma consegue ocupar os workers enquanto outras esperam. Pedidos cancelados ou com
+ * prazo vencido ficam na fila e são descartados quando chegam à frente; o prazo é avisado na
+ * hora por um timer, sem esperar um worker ficar livre.
+ */
+final class SearchScheduler {
+
+    private final BlockingQueue<SearchRequest> queue = new LinkedBlockingQueue<>();
+    private final Thread[] workers;
+    // Expira no prazo os pedidos que ainda estão na fila (uma thread para todos)
+    private final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "engine-service-deadlines");
+        t.setDaemon(true);
+        return t;
+    });
+
+    SearchScheduler(int workerCount, int hashMb) {
+        // Um monitor JMX para todos os workers: totais do serviço e a última busca de qualquer um
+        SearchMonitor monitor = SearchMonitor.register("service");
+        deadlines.setRemoveOnCancelPolicy(true);
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            MinimaxAI engine = new MinimaxAI(0, new TranspositionTable(hashMb));
+            engine.setSearchMonitor(monitor);
+            workers[i] = new Thread(() -> work(engine), "engine-service-search-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    void submit(SearchRequest request) {
+        if (request.deadlineNanos != Long.MAX_VALUE) {
+            Future<?> timer = deadlines.schedule(request::expire,
+                    request.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            // Respondido antes do prazo: o timer sai da fila do executor
+            request.result.whenComplete((move, error) -> timer.cancel(false));
+        }
+        queue.add(request);
+    }
+
+    void shutdown() {
+        deadlines.shutdownNow();
+        for (Thread worker : workers) worker.interrupt();
+        for (SearchRequest request; (request = queue.poll()) != null; ) request.cancel();
+    }
+
+    private void work(MinimaxAI engine) {
+        while (!Thread.currentThread().isInterrupted()) {
+            SearchRequest request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            TimeManager time = request.start();
+            if (time == null) continue;
+            try {
+                Move move = engine.findBestMove(request.position, time);
+                request.result.complete(move);
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+}
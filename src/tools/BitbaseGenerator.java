@@ -0,0 +1,339 @@
+package tools;
+
+import ai.Bitbases;
+import ai.Bitbases.Ending;
+import controller.Game;
+import model.board.Attacks;
+import model.board.BitBoard;
+import model.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Gera as bitbases de ai.Bitbases por análise retrógrada.
+ *
+ * Começa com nada marcado como vitória e varre todas as posições repetidamente: com o lado
+ * forte a jogar, é vitória se algum lance leva a uma vitória; com o fraco a jogar, se ele
+ * está em mate ou se todos os seus lances levam a vitórias (capturar a peça é empate). Cada
+ * varredura alcança vitórias um meio-lance mais longas; quando uma varredura não marca nada
+ * novo, o resto é empate. As varreduras são divididas entre as threads de um ForkJoinPool;
+ * cada tarefa só escreve nos longs da sua faixa de índices, e os bits só passam de 0 para 1,
+ * então ler bits de outras faixas no meio da varredura só adianta a convergência.
+ *
+ * O KPK depende dos outros dois (promoção vira KQK ou KRK), por isso é gerado por último.
+ *
+ * Com --verify, depois de gravar, confere as tabelas contra o gerador de lances de Game (cada
+ * posição legal tem que concordar com os seus lances) e contra posições de manual; termina
+ * com código de saída 1 se alguma divergir.
+ *
+ * Uso: java -cp out tools.BitbaseGenerator [pasta] [--threads N] [--verify]
+ */
+public final class BitbaseGenerator {
+
+    private static final String DEFAULT_FOLDER = "bitbases";
+    // Menor faixa de longs que vira tarefa própria
+    private static final int SPLIT_WORDS = 256;
+
+    private final ForkJoinPool pool;
+    private final long[][] results = new long[Ending.values().length][];
+    // Varreduras da última geração (= comprimento da vitória mais longa em meios-lances + 1)
+    private int lastPasses;
+
+    public BitbaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Bits de vitória do final (gera os finais de que ele depende, se preciso). */
+    public long[] generate(Ending e) {
+        if (results[e.ordinal()] != null) return results[e.ordinal()];
+        if (e == Ending.KPK) {
+            generate(Ending.KQK);
+            generate(Ending.KRK);
+        }
+        long[] win = new long[(e.size + 63) / 64];
+        int passes = 0;
+        long added;
+        do {
+            added = pool.invoke(new Sweep(e, win, 0, win.length));
+            passes++;
+        } while (added > 0);
+        results[e.ordinal()] = win;
+        lastPasses = passes;
+        return win;
+    }
+
+    /** Grava os bits no formato lido por Bitbases (bit i no byte i / 8). */
+    public static void write(long[] win, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(win.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(win);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /** Uma varredura sobre os longs [from, to); devolve quantas vitórias novas marcou. */
+    private final class Sweep extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Ending ending;
+        private final long[] win;
+        private final int from, to;
+
+        Sweep(Ending ending, long[] win, int from, int to) {
+            this.ending = ending;
+            this.win = win;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > SPLIT_WORDS) {
+                int mid = (from + to) >>> 1;
+                Sweep right = new Sweep(ending, win, mid, to);
+                right.fork();
+                long left = new Sweep(ending, win, from, mid).compute();
+                return left + right.join();
+            }
+            long added = 0;
+            int end = Math.min(to * 64, ending.size);
+            for (int index = from * 64; index < end; index++) {
+                if (isSet(win, index)) continue;
+                if (isWin(ending, win, index)) {
+                    win[index >>> 6] |= 1L << index;
+                    added++;
+                }
+            }
+            return added;
+        }
+    }
+
+    /** A posição do índice já é vitória, dado o que está marcado até agora? */
+    private boolean isWin(Ending e, long[] win, int index) {
+        int[] s = Bitbases.decode(e, index);
+        int strongKing = s[0], weakKing = s[1], piece = s[2];
+        boolean strongToMove = s[3] == 0;
+        long kings = 1L << strongKing | 1L << weakKing;
+        // Ilegais (sobrepostas, reis vizinhos, lado fraco em xeque com o forte a jogar): nunca vitória
+        if (strongKing == weakKing || (kings & 1L << piece) != 0) return false;
+        if ((Attacks.KING[strongKing] & 1L << weakKing) != 0) return false;
+        long attacked = Bitbases.pieceAttacks(e, piece, strongKing);
+        boolean weakInCheck = (attacked & 1L << weakKing) != 0;
+        if (strongToMove && weakInCheck) return false;
+
+        if (strongToMove) return strongHasWinningMove(e, win, strongKing, weakKing, piece);
+
+        // Lado fraco a jogar: sem lances é mate (vitória) ou afogamento (empate)
+        long guarded = Attacks.KING[strongKing] | attacked;
+        long targets = Attacks.KING[weakKing] & ~guarded;
+        if (targets == 0) return weakInCheck;
+        if ((targets & 1L << piece) != 0) return false; // captura a peça indefesa: empate
+        for (long bb = targets; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if (!isSet(win, Bitbases.index(e, strongKing, to, piece, true))) return false;
+        }
+        return true;
+    }
+
+    private boolean strongHasWinningMove(Ending e, long[] win, int strongKing, int weakKing, int piece) {
+        long occupied = 1L << strongKing | 1L << weakKing | 1L << piece;
+        // Lances do rei forte (nunca vizinho do rei fraco)
+        long kingTargets = Attacks.KING[strongKing] & ~Attacks.KING[weakKing] & ~(1L << piece);
+        for (long bb = kingTargets; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if (isSet(win, Bitbases.index(e, to, weakKing, piece, false))) return true;
+        }
+        if (e == Ending.KPK) {
+            int push = piece - 8; // Brancas andam para a fileira 0 (8ª)
+            if ((occupied & 1L << push) != 0) return false;
+            if (Bitbases.rank(push) == 7) return promotionWins(strongKing, weakKing, push);
+            if (isSet(win, Bitbases.index(e, strongKing, weakKing, push, false))) return true;
+            int doublePush = push - 8;
+            return Bitbases.rank(piece) == 1 && (occupied & 1L << doublePush) == 0
+                    && isSet(win, Bitbases.index(e, strongKing, weakKing, doublePush, false));
+        }
+        long pieceTargets = Bitbases.pieceAttacks(e, piece, strongKing) & ~occupied;
+        // Raio até o rei fraco (pieceAttacks o atravessa): a peça não passa por ele
+        pieceTargets &= ~xrayBehindWeakKing(e, piece, strongKing, weakKing);
+        for (long bb = pieceTargets; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if (isSet(win, Bitbases.index(e, strongKing, weakKing, to, false))) return true;
+        }
+        return false;
+    }
+
+    /** Casas que a peça "alcançaria" só atravessando o rei fraco. */
+    private static long xrayBehindWeakKing(Ending e, int piece, int strongKing, int weakKing) {
+        long occupied = 1L << strongKing | 1L << weakKing;
+        long real = e == Ending.KRK ? Attacks.rook(piece, occupied) : Attacks.queen(piece, occupied);
+        return Bitbases.pieceAttacks(e, piece, strongKing) & ~real;
+    }
+
+    /** Promoção a dama ou torre (a que vencer); o lado fraco joga em seguida. */
+    private boolean promotionWins(int strongKing, int weakKing, int square) {
+        long[] kqk = results[Ending.KQK.ordinal()];
+        long[] krk = results[Ending.KRK.ordinal()];
+        return isSet(kqk, Bitbases.index(Ending.KQK, strongKing, weakKing, square, false))
+                || isSet(krk, Bitbases.index(Ending.KRK, strongKing, weakKing, square, false));
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    // ==== linha de comando ====
+
+    public static void main(String[] args) throws IOException {
+        Path folder = Path.of(DEFAULT_FOLDER);
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean verify = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads")) threads = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--verify")) verify = true;
+            else folder = Path.of(args[i]);
+        }
+        Files.createDirectories(folder);
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        BitbaseGenerator generator = new BitbaseGenerator(pool);
+        // KQK e KRK antes do KPK, que os consulta nas promoções
+        for (Ending e : new Ending[]{Ending.KQK, Ending.KRK, Ending.KPK}) {
+            long start = System.nanoTime();
+            long[] win = generator.generate(e);
+            long wins = 0;
+            for (long w : win) wins += Long.bitCount(w);
+            write(win, folder.resolve(e.fileName()));
+            System.out.printf("%s: %d posições, %d vitórias, %d varreduras, %d ms%n", e, e.size, wins,
+                    generator.lastPasses, (System.nanoTime() - start) / 1_000_000);
+        }
+        pool.shutdown();
+
+        if (verify && !verify(Bitbases.open(folder))) System.exit(1);
+    }
+
+    // ==== conferência (--verify) ====
+
+    // Posições de manual e o resultado esperado (vitória do lado forte?)
+    private static final String[] SPOT_FENS = {
+            "k7/8/K7/P7/8/8/8/8 w - - 0 1",         // peão de torre com o rei fraco no canto: empate
+            "4k3/8/4K3/4P3/8/8/8/8 b - - 0 1",      // rei na 6ª à frente do peão: vence com qualquer vez
+            "4k3/8/8/4K3/4P3/8/8/8 w - - 0 1",      // rei à frente do peão, brancas com a oposição
+            "4k3/8/8/4K3/4P3/8/8/8 b - - 0 1",      // a mesma, pretas com a oposição: empate
+            "8/8/8/4k3/8/8/8/R3K3 w - - 0 1",       // KRK: vitória
+            "7k/8/8/8/8/8/1r6/K7 w - - 0 1",        // torre pendurada: Kxb2 empata
+            "k7/8/1Q6/8/8/8/8/7K b - - 0 1",        // afogamento
+            "8/8/8/8/4p3/8/4k3/4K3 w - - 0 1",      // afogamento com o lado forte de pretas
+            "8/8/2k5/8/8/8/8/3QK3 b - - 0 1",       // KQK com o fraco a jogar: vitória
+    };
+    private static final boolean[] SPOT_WINS = {false, true, true, false, true, false, false, false, true};
+    private static final char[] PIECE_LETTERS = {'P', 'N', 'B', 'R', 'Q', 'K'};
+
+    /**
+     * Confere cada posição legal de cada tabela com um lance de busca: com o forte a jogar, é
+     * vitória se algum lance leva a vitória; com o fraco, se ele está em mate ou todos os lances
+     * levam a vitória. Os lances vêm de Game, não da geração retrógrada, então um erro num dos
+     * dois aparece como divergência. Depois confere as posições de manual. Imprime o resumo e
+     * as divergências; devolve verdadeiro se não houve nenhuma.
+     */
+    static boolean verify(Bitbases bitbases) {
+        long checked = 0, failures = 0;
+        int[] moves = new int[Game.MAX_MOVES];
+        for (Ending e : Ending.values()) {
+            for (int index = 0; index < e.size; index++) {
+                int[] p = Bitbases.decode(e, index);
+                int strongKing = p[0], weakKing = p[1], piece = p[2];
+                boolean strongToMove = p[3] == 0;
+                // Só a forma canônica de cada posição, e só posições possíveis
+                if (Bitbases.index(e, strongKing, weakKing, piece, strongToMove) != index) continue;
+                if (strongKing == weakKing || strongKing == piece || weakKing == piece) continue;
+                if ((Attacks.KING[strongKing] & (1L << weakKing)) != 0) continue;
+                // Metade com o lado forte de pretas, para passar pelo espelhamento do probe
+                boolean strongWhite = (index & 2) == 0;
+                Game game = Game.fromFen(fen(e, strongKing, weakKing, piece, strongWhite, strongToMove == strongWhite));
+                if (game.inCheck(!game.whiteToMove())) continue;
+
+                boolean win = isWin(bitbases, game);
+                int count = game.generateMoves(moves, 0);
+                boolean expected = strongToMove ? false : count > 0 || game.inCheck(game.whiteToMove());
+                for (int i = 0; i < count; i++) {
+                    game.makeMove(moves[i]);
+                    boolean childWin = isWin(bitbases, game);
+                    game.unmakeMove();
+                    if (strongToMove && childWin) expected = true;
+                    if (!strongToMove && !childWin) expected = false;
+                }
+                checked++;
+                if (win != expected) {
+                    failures++;
+                    if (failures <= 10) System.out.printf("DIVERGE %s: %s tabela=%b lances=%b%n", e, game.toFen(), win, expected);
+                }
+            }
+        }
+        System.out.printf("Conferidas %d posições contra o gerador de lances: %d divergências%n", checked, failures);
+
+        for (int i = 0; i < SPOT_FENS.length; i++) {
+            boolean win = isWin(bitbases, Game.fromFen(SPOT_FENS[i]));
+            if (win != SPOT_WINS[i]) {
+                failures++;
+                System.out.printf("DIVERGE %s: tabela=%b esperado=%b%n", SPOT_FENS[i], win, SPOT_WINS[i]);
+            }
+        }
+        System.out.println(failures == 0 ? "Bitbases OK" : "Bitbases com erro");
+        return failures == 0;
+    }
+
+    /**
+     * Vitória do lado forte segundo as tabelas. Fora delas (peça capturada ou sobra só rei
+     * contra rei) é empate; mate com o fraco a jogar volta UNKNOWN do probe e conta como vitória.
+     */
+    private static boolean isWin(Bitbases bitbases, Game game) {
+        int score = bitbases.probe(game);
+        if (score != Bitbases.UNKNOWN) return score != 0;
+        BitBoard board = game.board();
+        if (Long.bitCount(board.occupancy()) == 2) return false;
+        // Promoção a cavalo ou bispo não tem como vencer
+        for (boolean white : new boolean[]{true, false}) {
+            if ((board.bitboard(Piece.KNIGHT, white) | board.bitboard(Piece.BISHOP, white)) != 0) return false;
+        }
+        return !game.hasLegalMoves() && game.inCheck(game.whiteToMove());
+    }
+
+    /** FEN com as casas da tabela (forte como Brancas); com o forte de Pretas, fileiras espelhadas. */
+    private static String fen(Ending e, int strongKing, int weakKing, int piece, boolean strongWhite,
+                              boolean whiteToMove) {
+        char[] squares = new char[64];
+        Arrays.fill(squares, '.');
+        int flip = strongWhite ? 0 : 56;
+        char letter = PIECE_LETTERS[e.pieceType];
+        squares[strongKing ^ flip] = strongWhite ? 'K' : 'k';
+        squares[weakKing ^ flip] = strongWhite ? 'k' : 'K';
+        squares[piece ^ flip] = strongWhite ? letter : Character.toLowerCase(letter);
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                char c = squares[row * 8 + col];
+                if (c == '.') {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) fen.append(empty);
+                empty = 0;
+                fen.append(c);
+            }
+            if (empty > 0) fen.append(empty);
+            if (row < 7) fen.append('/');
+        }
+        return fen.append(whiteToMove ? " w - - 0 1" : " b - - 0 1").toString();
+    }
+}
@@ -0,0 +1,208 @@
+package tools;
+
+import ai.OpeningBook;
+import controller.Game;
+import controller.Notation;
+import model.board.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Gera o livro de aberturas (formato de ai.OpeningBook) a partir de uma pasta de partidas PGN.
+ *
+ * Cada partida é jogada lance a lance (SAN) até 'plies' meios-lances; cada par (posição,
+ * lance) soma pontos para quem jogou: 2 por vitória, 1 por empate ou resultado desconhecido,
+ * 0 por derrota. O peso no livro é essa soma, então lances que só aparecem em derrotas não
+ * entram. Pares vistos em menos de 'min-games' partidas também ficam de fora.
+ *
+ * Uso: java -cp out tools.BookBuilder pastaPgn livro.bin [--plies N] [--min-games K]
+ */
+public final class BookBuilder {
+
+    private static final int DEFAULT_PLIES = 20;
+    private static final int DEFAULT_MIN_GAMES = 2;
+
+    private final int plies;
+    private final int minGames;
+    // (posição, lance do livro) -> {partidas, pontos}
+    private final Map<Entry, int[]> stats = new HashMap<>();
+    private int games, rejected;
+
+    public BookBuilder(int plies, int minGames) {
+        this.plies = plies;
+        this.minGames = minGames;
+    }
+
+    private record Entry(long key, int move) { }
+
+    /** Lê todos os arquivos .pgn da pasta. */
+    public void addFolder(Path folder) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(folder)) {
+            files = list.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pgn")).sorted().toList();
+        }
+        for (Path file : files) addFile(file);
+    }
+
+    /** Lê as partidas de um arquivo PGN: blocos de tags [..] seguidos do texto dos lances. */
+    public void addFile(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            String result = "*";
+            StringBuilder movetext = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("[")) {
+                    // Tag depois de lances: começou a próxima partida
+                    if (movetext.length() > 0) {
+                        addGame(movetext, result);
+                        movetext.setLength(0);
+                        result = "*";
+                    }
+                    if (line.startsWith("[Result ")) {
+                        int q = line.indexOf('"');
+                        result = line.substring(q + 1, line.indexOf('"', q + 1));
+                    }
+                } else if (!line.isEmpty()) {
+                    movetext.append(line).append('\n');
+                }
+            }
+            if (movetext.length() > 0) addGame(movetext, result);
+        }
+    }
+
+    private void addGame(CharSequence movetext, String result) {
+        // Pontos de quem tem as Brancas; as Pretas ficam com 2 - isso
+        int whitePoints = switch (result) {
+            case "1-0" -> 2;
+            case "0-1" -> 0;
+            default -> 1;
+        };
+        Game game = new Game();
+        int ply = 0;
+        for (String san : tokens(movetext)) {
+            if (ply >= plies) break;
+            int move = Notation.fromSan(game, san);
+            if (move == PackedMove.NONE) {
+                rejected++; // lance ilegal ou ilegível: aproveita só o trecho até aqui
+                break;
+            }
+            int[] s = stats.computeIfAbsent(new Entry(game.zobristKey(), OpeningBook.encodeMove(move)), k -> new int[2]);
+            s[0]++;
+            s[1] += game.whiteToMove() ? whitePoints : 2 - whitePoints;
+            game.makeMove(move);
+            ply++;
+        }
+        games++;
+    }
+
+    /** Lances SAN do texto, sem comentários, variantes, NAGs, números de lance e resultado. */
+    private static List<String> tokens(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        int variation = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                while (i < text.length() && text.charAt(i) != '}') i++;
+                c = ' ';
+            } else if (c == ';') {
+                while (i < text.length() && text.charAt(i) != '\n') i++;
+                c = ' ';
+            } else if (c == '(') {
+                variation++;
+                c = ' ';
+            } else if (c == ')') {
+                variation--;
+                c = ' ';
+            }
+            if (variation > 0) continue;
+            if (Character.isWhitespace(c)) {
+                addToken(tokens, token);
+            } else {
+                token.append(c);
+            }
+        }
+        addToken(tokens, token);
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder token) {
+        if (token.length() == 0) return;
+        String t = token.toString();
+        token.setLength(0);
+        // "12." e "12..." (inclusive colados no lance: "12.e4")
+        int dot = t.lastIndexOf('.');
+        if (dot >= 0) t = t.substring(dot + 1);
+        if (t.isEmpty() || t.startsWith("$") || t.equals("*")
+                || t.equals("1-0") || t.equals("0-1") || t.equals("1/2-1/2")) return;
+        tokens.add(t);
+    }
+
+    /** Grava o livro ordenado pela chave (sem sinal); devolve o número de entradas. */
+    public int write(Path out) throws IOException {
+        List<Map.Entry<Entry, int[]>> kept = new ArrayList<>();
+        int maxWeight = 1;
+        for (Map.Entry<Entry, int[]> e : stats.entrySet()) {
+            if (e.getValue()[0] < minGames || e.getValue()[1] == 0) continue;
+            kept.add(e);
+            maxWeight = Math.max(maxWeight, e.getValue()[1]);
+        }
+        kept.sort(Comparator.<Map.Entry<Entry, int[]>, Long>comparing(e -> e.getKey().key(), Long::compareUnsigned)
+                .thenComparing(e -> -e.getValue()[1]));
+
+        // Pesos cabem em 16 bits: escala proporcional se algum passar, sem zerar nenhum
+        double scale = Math.min(1.0, 0xFFFF / (double) maxWeight);
+        ByteBuffer buffer = ByteBuffer.allocate(kept.size() * OpeningBook.ENTRY_SIZE);
+        for (Map.Entry<Entry, int[]> e : kept) {
+            buffer.putLong(e.getKey().key());
+            buffer.putShort((short) e.getKey().move());
+            buffer.putShort((short) Math.max(1, (int) (e.getValue()[1] * scale)));
+            buffer.putInt(0);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        return kept.size();
+    }
+
+    // ==== linha de comando ====
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: java tools.BookBuilder pastaPgn livro.bin [--plies N] [--min-games K]");
+            System.exit(2);
+        }
+        int plies = DEFAULT_PLIES, minGames = DEFAULT_MIN_GAMES;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--plies" -> plies = Integer.parseInt(args[++i]);
+                case "--min-games" -> minGames = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        BookBuilder builder = new BookBuilder(plies, minGames);
+        long start = System.nanoTime();
+        builder.addFolder(Path.of(args[0]));
+        int entries = builder.write(Path.of(args[1]));
+        System.out.println("Partidas: " + builder.games + " (" + builder.rejected + " com lance inválido)");
+        System.out.println("Entradas: " + entries);
+        System.out.println("Tempo: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
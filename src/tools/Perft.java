@@ -0,0 +1,236 @@
+package tools;
+
+import controller.Game;
+import model.board.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft: conta as folhas da árvore de lances até a profundidade N. Serve para conferir o
+ * gerador de lances (Game.generateMoves + makeMove/unmakeMove) contra contagens conhecidas e
+ * como benchmark de vazão do gerador (nós por segundo).
+ *
+ * - divide: contagem separada por lance da raiz, para achar onde dois geradores divergem;
+ * - tabela de perft: subárvores repetidas (transposições) são contadas uma vez só, pela chave
+ *   Zobrist da posição combinada com a profundidade restante;
+ * - os lances da raiz são divididos entre as threads de um ForkJoinPool.
+ *
+ * Contagens de referência em REFERENCE (posição inicial, "Kiwipete" e as posições 3 e 4 da
+ * lista clássica de perft). Com --verify, confere todas até a profundidade 4 e termina com
+ * código de saída 1 se alguma divergir: é o teste do gerador de lances depois de mexer nele.
+ *
+ * Uso: java -cp out tools.Perft [profundidade] [--divide] [--threads N] [--hash MB] [--fen "FEN"]
+ *      java -cp out tools.Perft --verify [--threads N] [--hash MB]
+ */
+public final class Perft {
+
+    private static final int DEFAULT_DEPTH = 5;
+    private static final int DEFAULT_HASH_MB = 64;
+
+    /** Posição e contagens conhecidas nas profundidades 1, 2, 3, ... */
+    private record Reference(String name, String fen, long... counts) { }
+
+    private static final Reference[] REFERENCE = {
+            new Reference("inicial", Game.START_FEN, 20, 400, 8902, 197281, 4865609),
+            new Reference("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603, 193690690),
+            new Reference("posição 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624),
+            new Reference("posição 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333, 15833292),
+    };
+    // Profundidade máxima do --verify (rápida o bastante para rodar a cada mudança)
+    private static final int VERIFY_DEPTH = 4;
+
+    private final PerftTable table;
+
+    /** @param hashMegabytes tamanho da tabela de perft; 0 desliga a tabela. */
+    public Perft(int hashMegabytes) {
+        this.table = hashMegabytes > 0 ? new PerftTable(hashMegabytes) : null;
+    }
+
+    /** Número de folhas a 'depth' meios-lances da posição, contado numa única thread. */
+    public long perft(Game game, int depth) {
+        return perft(game, depth, new int[Math.max(depth, 1)][Game.MAX_MOVES]);
+    }
+
+    /** 'buffers[d]' guarda os lances do nível com profundidade restante d+1 (sem alocar por nó). */
+    private long perft(Game game, int depth, int[][] buffers) {
+        if (depth == 0) return 1;
+        int[] moves = buffers[depth - 1];
+        int count = game.generateMoves(moves, 0);
+        // Última camada: cada lance gerado é uma folha, não precisa fazer e desfazer
+        if (depth == 1) return count;
+
+        long key = game.zobristKey();
+        if (table != null) {
+            long cached = table.probe(key, depth);
+            if (cached >= 0) return cached;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            nodes += perft(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        if (table != null) table.store(key, depth, nodes);
+        return nodes;
+    }
+
+    /**
+     * Perft por lance da raiz, cada lance numa tarefa do pool (sobre sua própria cópia do
+     * jogo). A ordem do resultado é a do gerador.
+     */
+    public List<Divide> divide(Game game, int depth, ForkJoinPool pool) {
+        int[] moves = new int[Game.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        List<RootTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) tasks.add(new RootTask(game, moves[i], depth));
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<Divide> result = new ArrayList<>(tasks.size());
+        for (RootTask t : tasks) result.add(new Divide(t.move, t.join()));
+        return result;
+    }
+
+    /** Contagem de um lance da raiz no modo divide. */
+    public record Divide(int move, long nodes) {
+
+        /** Lance em notação de coordenadas, como nas ferramentas de perft ("e2e4", "e7e8q"). */
+        public String moveText() {
+            return PackedMove.toString(move);
+        }
+    }
+
+    private final class RootTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Game parent;
+        private final int move;
+        private final int depth;
+
+        RootTask(Game parent, int move, int depth) {
+            this.parent = parent;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            // O jogo da raiz só é lido (snapshot); cada tarefa faz o lance na sua cópia
+            Game game = parent.snapshot();
+            game.makeMove(move);
+            return perft(game, depth - 1);
+        }
+    }
+
+    /**
+     * Tabela de contagens sem locks: cada entrada guarda (chave ^ contagem, contagem), e uma
+     * escrita rasgada por outra thread simplesmente não confere na leitura. Substituição sempre.
+     */
+    private static final class PerftTable {
+
+        private final long[] slots; // pares: [2i] = chave ^ contagem, [2i+1] = contagem
+        private final int mask;
+
+        PerftTable(int megabytes) {
+            int entries = Integer.highestOneBit((int) Math.min((megabytes * 1024L * 1024L) / 16, 1 << 28));
+            this.slots = new long[entries * 2];
+            this.mask = entries - 1;
+        }
+
+        /** Contagem guardada para a posição nesta profundidade, ou -1. */
+        long probe(long key, int depth) {
+            long k = mix(key, depth);
+            int i = (int) k & mask;
+            long nodes = slots[2 * i + 1];
+            return (slots[2 * i] ^ nodes) == k ? nodes : -1;
+        }
+
+        void store(long key, int depth, long nodes) {
+            long k = mix(key, depth);
+            int i = (int) k & mask;
+            slots[2 * i] = k ^ nodes;
+            slots[2 * i + 1] = nodes;
+        }
+
+        // A mesma posição em profundidades diferentes ocupa entradas diferentes
+        private static long mix(long key, int depth) {
+            return key ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Confere as posições de REFERENCE nas profundidades 1 a VERIFY_DEPTH, imprimindo uma
+     * linha por contagem; devolve verdadeiro se todas bateram.
+     */
+    public boolean verify(ForkJoinPool pool) {
+        boolean ok = true;
+        for (Reference r : REFERENCE) {
+            for (int depth = 1; depth <= VERIFY_DEPTH; depth++) {
+                long nodes = 0;
+                for (Divide d : divide(Game.fromFen(r.fen()), depth, pool)) nodes += d.nodes();
+                long expected = r.counts()[depth - 1];
+                boolean match = nodes == expected;
+                ok &= match;
+                System.out.printf("%-10s profundidade %d: %,12d %s%n", r.name(), depth, nodes,
+                        match ? "ok" : "ERRO (esperado " + String.format("%,d", expected) + ")");
+            }
+        }
+        System.out.println(ok ? "Perft OK" : "Perft com erro");
+        return ok;
+    }
+
+    // ==== linha de comando ====
+
+    public static void main(String[] args) {
+        int depth = DEFAULT_DEPTH;
+        boolean divide = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMb = DEFAULT_HASH_MB;
+        String fen = Game.START_FEN;
+        boolean verify = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide" -> divide = true;
+                case "--verify" -> verify = true;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--hash" -> hashMb = Integer.parseInt(args[++i]);
+                case "--fen" -> fen = args[++i];
+                default -> depth = Integer.parseInt(args[i]);
+            }
+        }
+
+        Perft perft = new Perft(hashMb);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        if (verify) {
+            boolean ok = perft.verify(pool);
+            pool.shutdown();
+            if (!ok) System.exit(1);
+            return;
+        }
+
+        Game game = Game.fromFen(fen);
+        System.out.println("Posição: " + game.toFen());
+
+        long start = System.nanoTime();
+        List<Divide> counts = depth > 0 ? perft.divide(game, depth, pool) : List.of();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        long total = depth > 0 ? 0 : 1;
+        for (Divide d : counts) {
+            if (divide) System.out.println(d.moveText() + ": " + d.nodes());
+            total += d.nodes();
+        }
+        long ms = elapsed / 1_000_000;
+        if (divide) System.out.println();
+        System.out.println("Lances: " + counts.size());
+        System.out.println("Nós: " + total);
+        System.out.println("Tempo: " + ms + " ms");
+        System.out.println("NPS: " + (long) (total / Math.max(elapsed / 1e9, 1e-9)));
+    }
+}
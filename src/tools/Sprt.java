@@ -0,0 +1,90 @@
+package tools;
+
+/**
+ * Teste sequencial da razão de verossimilhança (SPRT) para partidas entre dois motores:
+ * H0 = diferença de Elo elo0, H1 = elo1. Depois de cada partida o LLR (log da razão de
+ * verossimilhança) é comparado com os limites de Wald; quando sai do intervalo, o teste
+ * termina aceitando uma das hipóteses, com erros tipo I e II limitados por alpha e beta.
+ *
+ * O LLR usa a aproximação normal do modelo trinomial (vitória, empate, derrota) com a
+ * variância observada, a mesma dos frameworks de teste de motores:
+ * <pre>
+ *   LLR ~ N (s1 - s0) (2s - s0 - s1) / (2 var)
+ * </pre>
+ * onde s é o score médio por partida, var a variância por partida e s0, s1 os scores
+ * esperados pelas diferenças de Elo das hipóteses (curva logística).
+ */
+public final class Sprt {
+
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    private final double elo0, elo1;
+    private final double lower, upper;
+
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+    public double lowerBound() { return lower; }
+
+    public double upperBound() { return upper; }
+
+    /**
+     * LLR do placar (do ponto de vista do motor testado). Cada contagem recebe meia partida a
+     * mais: sem isso, um placar só de vitórias tem variância zero e o teste nunca terminaria.
+     */
+    public double llr(int wins, int draws, int losses) {
+        if (wins + draws + losses == 0) return 0;
+        double w = wins + 0.5, d = draws + 0.5, l = losses + 0.5;
+        double n = w + d + l;
+        double score = (w + 0.5 * d) / n;
+        double variance = (w * (1 - score) * (1 - score) + d * (0.5 - score) * (0.5 - score)
+                + l * score * score) / n;
+        double s0 = expectedScore(elo0), s1 = expectedScore(elo1);
+        return n * (s1 - s0) * (2 * score - s0 - s1) / (2 * variance);
+    }
+
+    public Decision decide(int wins, int draws, int losses) {
+        double llr = llr(wins, draws, losses);
+        if (llr >= upper) return Decision.ACCEPT_H1;
+        if (llr <= lower) return Decision.ACCEPT_H0;
+        return Decision.CONTINUE;
+    }
+
+    /** Score esperado com a diferença de Elo (0.5 em 0). */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /** Diferença de Elo correspondente ao placar (infinita com 0% ou 100%). */
+    public static double elo(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        if (n == 0) return 0;
+        return eloOf((wins + 0.5 * draws) / n);
+    }
+
+    /** Meia-largura do intervalo de 95% da diferença de Elo. */
+    public static double eloError95(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        if (n == 0) return Double.POSITIVE_INFINITY;
+        double score = (wins + 0.5 * draws) / n;
+        if (score == 0 || score == 1) return Double.POSITIVE_INFINITY;
+        double margin = 1.96 * Math.sqrt(variance(wins, draws, losses) / n);
+        return (eloOf(Math.min(1, score + margin)) - eloOf(Math.max(0, score - margin))) / 2;
+    }
+
+    // Variância do score de uma partida (1, 0.5 ou 0) em torno da média observada
+    private static double variance(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / n;
+        return (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                + losses * score * score) / n;
+    }
+
+    private static double eloOf(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+}
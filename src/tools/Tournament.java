@@ -0,0 +1,498 @@
+package tools;
+
+import ai.MinimaxAI;
+import ai.NegamaxAI;
+import ai.TimeManager;
+import ai.TranspositionTable;
+import controller.Game;
+import controller.Notation;
+import model.board.BitBoard;
+import model.board.Move;
+import model.pieces.Piece;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Torneio sem interface entre dois motores, para validar mudanças no motor jogando partidas.
+ *
+ * Cada partida roda na sua própria thread (virtual, quando a JVM tem; ver gameThreads()) com
+ * o seu controller.Game; as buscas vão para um pool fixo de threads de CPU, cada uma com as
+ * suas instâncias dos motores (eles não são thread-safe), limpas sempre que a thread passa a
+ * atender outra partida. Assim muitas partidas ficam abertas
+ * ao mesmo tempo, mas só 'workers' buscas rodam de fato, e a fila do pool alterna entre elas.
+ *
+ * As aberturas vêm de um arquivo de posições (FEN ou EPD, uma por linha) ou, sem arquivo, de
+ * alguns lances aleatórios a partir da posição inicial; cada abertura é jogada duas vezes,
+ * trocando as cores. As partidas terminadas vão para um PGN à medida que acabam. Com --sprt,
+ * o torneio para assim que o SPRT aceita uma das hipóteses; partidas em andamento nesse
+ * momento são abandonadas.
+ *
+ * Empates por regra dos 50 lances e material insuficiente são aplicados aqui (Game só detecta
+ * mate, afogamento e repetição); partidas que passam de --max-plies são adjudicadas empate.
+ *
+ * Uso: java -cp out tools.Tournament --engine1 SPEC --engine2 SPEC [--games N] [--workers N]
+ *        [--concurrency N] [--openings arquivo] [--random-plies N] [--max-plies N]
+ *        [--pgn saida.pgn] [--sprt elo0,elo1[,alpha,beta]]
+ *
+ * SPEC: tipo[:opção=valor,...] com tipo minimax ou negamax e opções movetime (ms), depth,
+ * nodes, hash (MB) e name; minimax aceita ainda nullmove, lmr e futility (on/off, padrão on).
+ * Ex.: minimax:nodes=50000,name=base ou minimax:depth=6,lmr=off
+ */
+public final class Tournament {
+
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int DEFAULT_CONCURRENCY = 64;
+    private static final int DEFAULT_RANDOM_PLIES = 8;
+    private static final int DEFAULT_MAX_PLIES = 400;
+    private static final long DEFAULT_MOVE_TIME_MS = 100;
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final double DEFAULT_SPRT_ALPHA = 0.05;
+    private static final double DEFAULT_SPRT_BETA = 0.05;
+
+    /** Joga um lance na posição; uma instância por thread de busca. */
+    interface Searcher {
+        Move search(Game game);
+
+        /** Esquece a tabela e os históricos das buscas anteriores. */
+        void newGame();
+    }
+
+    /** Configuração de um motor, lida de "tipo[:opção=valor,...]". */
+    record EngineSpec(String name, String type, long moveTime, int depth, long nodes, int hashMb,
+                      boolean nullMove, boolean lmr, boolean futility) {
+
+        static EngineSpec parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            String type = parts[0];
+            if (!type.equals("minimax") && !type.equals("negamax")) {
+                throw new IllegalArgumentException("Motor desconhecido: " + type);
+            }
+            String name = spec;
+            long moveTime = -1, nodes = 0;
+            int depth = 0, hash = DEFAULT_HASH_MB;
+            boolean nullMove = true, lmr = true, futility = true;
+            if (parts.length > 1) {
+                for (String option : parts[1].split(",")) {
+                    String[] kv = option.split("=", 2);
+                    if (kv.length != 2) throw new IllegalArgumentException("Opção sem valor: " + option);
+                    switch (kv[0]) {
+                        case "movetime" -> moveTime = Long.parseLong(kv[1]);
+                        case "depth" -> depth = Integer.parseInt(kv[1]);
+                        case "nodes" -> nodes = Long.parseLong(kv[1]);
+                        case "hash" -> hash = Integer.parseInt(kv[1]);
+                        case "name" -> name = kv[1];
+                        case "nullmove" -> nullMove = onOff(kv[1]);
+                        case "lmr" -> lmr = onOff(kv[1]);
+                        case "futility" -> futility = onOff(kv[1]);
+                        default -> throw new IllegalArgumentException("Opção desconhecida: " + kv[0]);
+                    }
+                }
+            }
+            // Sem nenhum limite, tempo fixo por lance
+            if (moveTime < 0 && depth == 0 && nodes == 0) moveTime = DEFAULT_MOVE_TIME_MS;
+            return new EngineSpec(name, type, Math.max(0, moveTime), depth, nodes, hash, nullMove, lmr, futility);
+        }
+
+        private static boolean onOff(String value) {
+            return switch (value) {
+                case "on", "true" -> true;
+                case "off", "false" -> false;
+                default -> throw new IllegalArgumentException("Esperado on ou off: " + value);
+            };
+        }
+
+        Searcher create() {
+            TranspositionTable tt = new TranspositionTable(hashMb);
+            if (type.equals("negamax")) {
+                NegamaxAI ai = new NegamaxAI(moveTime, tt);
+                if (depth > 0) ai.setMaxDepth(depth);
+                ai.setNodeLimit(nodes);
+                return searcher(game -> ai.findBestMove(game, time()), ai::newGame);
+            }
+            MinimaxAI ai = new MinimaxAI(moveTime, tt);
+            if (depth > 0) ai.setMaxDepth(depth);
+            ai.setNodeLimit(nodes);
+            ai.setNullMovePruning(nullMove);
+            ai.setLateMoveReductions(lmr);
+            ai.setFutilityPruning(futility);
+            return searcher(game -> ai.findBestMove(game, time()), ai::newGame);
+        }
+
+        private static Searcher searcher(Function<Game, Move> search, Runnable newGame) {
+            return new Searcher() {
+                @Override public Move search(Game game) { return search.apply(game); }
+
+                @Override public void newGame() { newGame.run(); }
+            };
+        }
+
+        private TimeManager time() {
+            return moveTime > 0 ? TimeManager.forMoveTime(moveTime) : TimeManager.infinite();
+        }
+    }
+
+    private final EngineSpec[] engines;
+    private final List<String> openings;
+    private final int randomPlies;
+    private final int maxPlies;
+    private final int games;
+    private final int concurrency;
+    private final Sprt sprt;
+    private final BufferedWriter pgn;
+
+    private final ExecutorService searchPool;
+    // Motores da thread de busca atual e a partida que eles atenderam por último
+    private final ThreadLocal<Worker> workers;
+
+    // Placar do ponto de vista do motor 1 (guardado por 'this'); partidas com erro ficam de fora
+    private int wins, draws, losses, errors;
+    private Sprt.Decision decision = Sprt.Decision.CONTINUE;
+    private volatile boolean finished;
+
+    /**
+     * @param openings FENs de abertura; vazia = posição inicial.
+     * @param sprt teste de parada antecipada, ou null para jogar todas as partidas.
+     * @param pgn destino das partidas, ou null.
+     */
+    public Tournament(EngineSpec engine1, EngineSpec engine2, List<String> openings, int randomPlies,
+                      int maxPlies, int games, int workers, int concurrency, Sprt sprt, BufferedWriter pgn) {
+        this.engines = new EngineSpec[]{engine1, engine2};
+        this.openings = openings;
+        this.randomPlies = randomPlies;
+        this.maxPlies = maxPlies;
+        this.games = games;
+        this.concurrency = concurrency;
+        this.sprt = sprt;
+        this.pgn = pgn;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.searchPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "tournament-search-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.workers = ThreadLocal.withInitial(() -> new Worker(engines[0].create(), engines[1].create()));
+    }
+
+    /** Joga as partidas (no máximo 'concurrency' abertas ao mesmo tempo) até o fim ou o SPRT decidir. */
+    public void run() throws InterruptedException {
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService gameThreads = gameThreads();
+        for (int i = 0; i < games && !finished; i++) {
+            slots.acquire();
+            int index = i;
+            gameThreads.execute(() -> {
+                try {
+                    playGame(index);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+        gameThreads.shutdown();
+        gameThreads.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        searchPool.shutdown();
+    }
+
+    /**
+     * Uma thread virtual por partida quando a JVM tem (Java 21+); a chamada é por reflexão para
+     * o projeto continuar compilando em versões anteriores, que usam threads comuns.
+     */
+    private static ExecutorService gameThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "tournament-game");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Joga uma partida e registra o resultado. Uma exceção (FEN de abertura inválida, erro na
+     * busca) não derruba o torneio: a partida termina com "*", conta como erro no placar e o
+     * motivo vai para a saída e para o PGN.
+     */
+    private void playGame(int index) {
+        boolean engine1White = index % 2 == 0;
+        String fen = Game.START_FEN;
+        List<String> moves = new ArrayList<>();
+        String result = null, reason = null;
+        try {
+            fen = opening(index / 2);
+            Game game = Game.fromFen(fen);
+            while (result == null) {
+                if (finished) return; // torneio decidido: a partida é abandonada
+                if (game.isGameOver()) {
+                    Boolean winner = game.winnerWhite();
+                    result = winner == null ? "1/2-1/2" : winner ? "1-0" : "0-1";
+                    reason = winner != null ? "mate" : game.isStalemate() ? "afogamento" : "repetição";
+                } else if (game.halfmoveClock() >= 100) {
+                    result = "1/2-1/2";
+                    reason = "50 lances";
+                } else if (insufficientMaterial(game.board())) {
+                    result = "1/2-1/2";
+                    reason = "material insuficiente";
+                } else if (moves.size() >= maxPlies) {
+                    result = "1/2-1/2";
+                    reason = "adjudicação";
+                } else {
+                    int engine = game.whiteToMove() == engine1White ? 0 : 1;
+                    Move move = search(index, engine, game);
+                    moves.add(Notation.toSan(game, move));
+                    game.move(move.getFrom(), move.getTo(), move.getPromotion());
+                }
+            }
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) cause = cause.getCause();
+            result = "*";
+            reason = "erro: " + cause;
+        }
+        finish(index, engine1White, fen, moves, result, reason);
+    }
+
+    /** Busca num dos workers; a thread da partida só espera (barato numa thread virtual). */
+    private Move search(int gameIndex, int engine, Game game) {
+        try {
+            return searchPool.submit(() -> workers.get().search(gameIndex, engine, game)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Partida interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro na busca", e.getCause());
+        }
+    }
+
+    /**
+     * Os dois motores de uma thread de busca. Eles atendem várias partidas intercaladas; ao
+     * trocar de partida os dois são limpos, para que a tabela e os históricos de uma partida
+     * não influenciem a busca de outra (as partidas precisam ser amostras independentes para
+     * o SPRT). Buscas seguidas da mesma partida na mesma thread aproveitam o que já sabem.
+     */
+    private static final class Worker {
+        private final Searcher[] engines;
+        private int lastGame = -1;
+
+        Worker(Searcher... engines) {
+            this.engines = engines;
+        }
+
+        Move search(int gameIndex, int engine, Game game) {
+            if (gameIndex != lastGame) {
+                for (Searcher s : engines) s.newGame();
+                lastGame = gameIndex;
+            }
+            return engines[engine].search(game);
+        }
+    }
+
+    /** Posição de abertura do par de partidas 'pair' (as duas cores jogam a mesma). */
+    private String opening(int pair) {
+        String fen = openings.isEmpty() ? Game.START_FEN : openings.get(pair % openings.size());
+        if (randomPlies == 0) return fen;
+        Game game = Game.fromFen(fen);
+        SplittableRandom random = new SplittableRandom(pair);
+        int[] moves = new int[Game.MAX_MOVES];
+        for (int i = 0; i < randomPlies; i++) {
+            int count = game.generateMoves(moves, 0);
+            if (count == 0) break;
+            game.makeMove(moves[random.nextInt(count)]);
+        }
+        return game.hasLegalMoves() ? game.toFen() : fen;
+    }
+
+    /** Só reis, ou reis e uma única peça menor: nenhum lado consegue dar mate. */
+    private static boolean insufficientMaterial(BitBoard board) {
+        int pieces = Long.bitCount(board.occupancy());
+        if (pieces == 2) return true;
+        if (pieces != 3) return false;
+        for (boolean white : new boolean[]{true, false}) {
+            if (board.bitboard(Piece.KNIGHT, white) != 0 || board.bitboard(Piece.BISHOP, white) != 0) return true;
+        }
+        return false;
+    }
+
+    private synchronized void finish(int index, boolean engine1White, String fen, List<String> moves,
+                                     String result, String reason) {
+        if (finished) return;
+        if (result.equals("*")) {
+            errors++;
+        } else {
+            String engine1Score = result.equals("1/2-1/2") ? "=" : result.equals("1-0") == engine1White ? "+" : "-";
+            switch (engine1Score) {
+                case "+" -> wins++;
+                case "-" -> losses++;
+                default -> draws++;
+            }
+        }
+        String white = engines[engine1White ? 0 : 1].name();
+        String black = engines[engine1White ? 1 : 0].name();
+        if (pgn != null) writePgn(index, white, black, fen, moves, result, reason);
+
+        int played = wins + draws + losses + errors;
+        StringBuilder line = new StringBuilder(String.format("%d/%d  %s - %s  %s (%s)  +%d =%d -%d  Elo %+.1f ± %.1f",
+                played, games, white, black, result, reason, wins, draws, losses,
+                Sprt.elo(wins, draws, losses), Sprt.eloError95(wins, draws, losses)));
+        if (sprt != null) {
+            line.append(String.format("  LLR %.2f [%.2f, %.2f]", sprt.llr(wins, draws, losses),
+                    sprt.lowerBound(), sprt.upperBound()));
+            decision = sprt.decide(wins, draws, losses);
+        }
+        System.out.println(line);
+        if (decision != Sprt.Decision.CONTINUE || played >= games) finished = true;
+    }
+
+    private void writePgn(int index, String white, String black, String fen, List<String> moves,
+                          String result, String reason) {
+        StringBuilder text = new StringBuilder();
+        tag(text, "Event", "tools.Tournament");
+        tag(text, "Site", "?");
+        tag(text, "Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+        tag(text, "Round", String.valueOf(index + 1));
+        tag(text, "White", white);
+        tag(text, "Black", black);
+        tag(text, "Result", result);
+        if (!fen.equals(Game.START_FEN)) {
+            tag(text, "SetUp", "1");
+            tag(text, "FEN", fen);
+        }
+        tag(text, "PlyCount", String.valueOf(moves.size()));
+        tag(text, "Termination", result.equals("*") ? "unterminated"
+                : reason.equals("adjudicação") ? "adjudication" : "normal");
+        text.append('\n');
+
+        // Numeração a partir do lance e da vez da FEN de abertura
+        String[] f = fen.split(" ");
+        boolean whiteMoves = f[1].equals("w");
+        int number = f.length > 5 ? Integer.parseInt(f[5]) : 1;
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < moves.size(); i++) {
+            String token = moves.get(i);
+            if (whiteMoves) token = number + ". " + token;
+            else if (i == 0) token = number + "... " + token;
+            if (!whiteMoves) number++;
+            whiteMoves = !whiteMoves;
+            appendWrapped(text, line, token);
+        }
+        if (result.equals("*")) appendWrapped(text, line, "{" + reason.replace("}", ")") + "}");
+        appendWrapped(text, line, result);
+        text.append(line).append("\n\n");
+        try {
+            pgn.write(text.toString());
+            pgn.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void tag(StringBuilder text, String name, String value) {
+        text.append('[').append(name).append(" \"").append(value.replace("\"", "'")).append("\"]\n");
+    }
+
+    // Linhas de até 80 colunas, como recomenda o padrão PGN
+    private static void appendWrapped(StringBuilder text, StringBuilder line, String token) {
+        if (line.length() > 0 && line.length() + 1 + token.length() > 80) {
+            text.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) line.append(' ');
+        line.append(token);
+    }
+
+    /** Resumo final: placar, Elo e a decisão do SPRT. */
+    public synchronized String summary() {
+        String text = String.format("%s vs %s: +%d =%d -%d  Elo %+.1f ± %.1f", engines[0].name(), engines[1].name(),
+                wins, draws, losses, Sprt.elo(wins, draws, losses), Sprt.eloError95(wins, draws, losses));
+        if (errors > 0) text += "  (" + errors + " partidas com erro)";
+        if (sprt == null) return text;
+        return text + switch (decision) {
+            case ACCEPT_H1 -> "  SPRT: H1 aceita";
+            case ACCEPT_H0 -> "  SPRT: H0 aceita";
+            case CONTINUE -> "  SPRT: inconclusivo";
+        };
+    }
+
+    /** Posições do arquivo: FEN completa ou EPD (4 campos, operações depois são ignoradas). */
+    static List<String> readOpenings(Path file) throws IOException {
+        List<String> fens = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] f = line.split("\\s+");
+            if (f.length < 4) throw new IllegalArgumentException("Posição incompleta: " + line);
+            String fen = String.join(" ", f[0], f[1], f[2], f[3]);
+            fen += f.length > 5 && f[4].matches("\\d+") && f[5].matches("\\d+") ? " " + f[4] + " " + f[5] : " 0 1";
+            Game.fromFen(fen); // valida agora, não no meio do torneio
+            fens.add(fen);
+        }
+        return fens;
+    }
+
+    // ==== linha de comando ====
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        EngineSpec engine1 = null, engine2 = null;
+        int games = DEFAULT_GAMES, concurrency = DEFAULT_CONCURRENCY, maxPlies = DEFAULT_MAX_PLIES;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int randomPlies = -1;
+        Path openingsFile = null, pgnFile = null;
+        Sprt sprt = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine1" -> engine1 = EngineSpec.parse(args[++i]);
+                case "--engine2" -> engine2 = EngineSpec.parse(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--workers" -> workers = Integer.parseInt(args[++i]);
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--openings" -> openingsFile = Path.of(args[++i]);
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                case "--pgn" -> pgnFile = Path.of(args[++i]);
+                case "--sprt" -> {
+                    String[] p = args[++i].split(",");
+                    sprt = new Sprt(Double.parseDouble(p[0]), Double.parseDouble(p[1]),
+                            p.length > 2 ? Double.parseDouble(p[2]) : DEFAULT_SPRT_ALPHA,
+                            p.length > 3 ? Double.parseDouble(p[3]) : DEFAULT_SPRT_BETA);
+                }
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (engine1 == null || engine2 == null) {
+            System.err.println("Uso: java tools.Tournament --engine1 SPEC --engine2 SPEC [--games N] [--workers N]"
+                    + " [--concurrency N] [--openings arquivo] [--random-plies N] [--max-plies N]"
+                    + " [--pgn saida.pgn] [--sprt elo0,elo1[,alpha,beta]]");
+            System.exit(2);
+        }
+        List<String> openings = openingsFile == null ? List.of() : readOpenings(openingsFile);
+        // Sem arquivo de aberturas, lances aleatórios para as partidas não saírem todas iguais
+        if (randomPlies < 0) randomPlies = openings.isEmpty() ? DEFAULT_RANDOM_PLIES : 0;
+
+        BufferedWriter pgn = pgnFile == null ? null : Files.newBufferedWriter(pgnFile, StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        Tournament tournament = new Tournament(engine1, engine2, openings, randomPlies, maxPlies, games,
+                Math.max(1, workers), Math.max(1, concurrency), sprt, pgn);
+        tournament.run();
+        if (pgn != null) pgn.close();
+        System.out.println(tournament.summary());
+        System.out.println("Tempo: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,363 @@
+package uci;
+
+import ai.Bitbases;
+import ai.Evaluation;
+import ai.MinimaxAI;
+import ai.OpeningBook;
+import ai.SearchListener;
+import ai.SearchMonitor;
+import ai.TimeManager;
+import ai.TranspositionTable;
+import controller.Game;
+import controller.Notation;
+import model.board.Move;
+import model.board.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Motor em modo texto pelo protocolo UCI, sem Swing: lê comandos da entrada padrão e
+ * responde na saída padrão. Serve para rodar o motor em servidores sem tela, em gerenciadores
+ * de torneio e em lotes de buscas.
+ *
+ * Comandos: uci, isready, ucinewgame, setoption, position (startpos | fen ...) [moves ...],
+ * go (depth, movetime, wtime/btime/winc/binc/movestogo, nodes, infinite, ponder), stop,
+ * ponderhit e quit. Cada iteração completa da busca sai como uma linha "info".
+ *
+ * A busca roda numa thread própria; a thread de leitura continua atendendo (stop, isready,
+ * ponderhit) enquanto ela pensa. Em "go infinite" e "go ponder" o bestmove só é enviado depois
+ * de stop ou ponderhit, mesmo que a busca termine antes, como pede o protocolo.
+ *
+ * Uso: java -cp out uci.UciEngine
+ */
+public final class UciEngine {
+
+    private static final String NAME = "ChessGame MinimaxAI";
+    private static final String AUTHOR = "helen123ee";
+    private static final int DEFAULT_HASH_MB = 32;
+    private static final int MAX_HASH_MB = 1024;
+    private static final String DEFAULT_BOOK_FILE = "book.bin";
+    private static final String DEFAULT_BITBASE_FOLDER = "bitbases";
+
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    // Opções (setoption); o motor é recriado quando o tamanho da tabela muda
+    private int hashMb = DEFAULT_HASH_MB;
+    private boolean ownBook = false;
+    private String bookFile = DEFAULT_BOOK_FILE;
+    private String bitbaseFolder = DEFAULT_BITBASE_FOLDER;
+    private boolean nullMove = true, lateMoveReductions = true, futility = true;
+    private MinimaxAI engine;
+
+    private Game game = new Game();
+
+    // Busca em andamento (null se não houver)
+    private Thread searchThread;
+    private TimeManager searchTime;
+    // Prazos do "go ponder", aplicados no ponderhit
+    private TimeManager ponderBudget;
+    // go infinite/ponder: segura o bestmove até stop ou ponderhit
+    private final Object hold = new Object();
+    private boolean holding;
+
+    public UciEngine(InputStream in, OutputStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = new PrintStream(out, false, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+
+    /** Atende comandos até "quit" ou o fim da entrada. */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line.trim())) break;
+        }
+        stopSearch();
+    }
+
+    /** Executa um comando; falso para "quit". Comandos desconhecidos são ignorados (UCI). */
+    private boolean handle(String line) {
+        if (line.isEmpty()) return true;
+        String[] t = line.split("\\s+");
+        switch (t[0]) {
+            case "uci" -> {
+                send("id name " + NAME);
+                send("id author " + AUTHOR);
+                send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name Clear Hash type button");
+                send("option name Ponder type check default true");
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default " + DEFAULT_BOOK_FILE);
+                send("option name BitbasePath type string default " + DEFAULT_BITBASE_FOLDER);
+                send("option name NullMove type check default true");
+                send("option name LMR type check default true");
+                send("option name Futility type check default true");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "ucinewgame" -> {
+                stopSearch();
+                engine = null; // tabela e históricos novos na próxima busca
+                game = new Game();
+            }
+            case "setoption" -> {
+                stopSearch();
+                setOption(line);
+            }
+            case "position" -> {
+                stopSearch();
+                position(t);
+            }
+            case "go" -> go(t);
+            case "stop" -> stopSearch();
+            case "ponderhit" -> ponderHit();
+            case "quit" -> {
+                return false;
+            }
+            default -> { }
+        }
+        return true;
+    }
+
+    // ==== comandos ====
+
+    /** "setoption name <nome> [value <valor>]"; o nome pode ter espaços ("Clear Hash"). */
+    private void setOption(String line) {
+        int nameAt = line.indexOf(" name ");
+        if (nameAt < 0) return;
+        int valueAt = line.indexOf(" value ", nameAt);
+        String name = (valueAt < 0 ? line.substring(nameAt + 6) : line.substring(nameAt + 6, valueAt)).trim();
+        String value = valueAt < 0 ? "" : line.substring(valueAt + 7).trim();
+
+        switch (name.toLowerCase()) {
+            case "hash" -> {
+                try {
+                    hashMb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+                    engine = null;
+                } catch (NumberFormatException e) {
+                    send("info string valor inválido para Hash: " + value);
+                }
+            }
+            case "clear hash" -> engine = null;
+            case "ownbook" -> {
+                ownBook = Boolean.parseBoolean(value);
+                engine = null;
+            }
+            case "bookfile" -> {
+                bookFile = value;
+                engine = null;
+            }
+            case "bitbasepath" -> {
+                bitbaseFolder = value;
+                engine = null;
+            }
+            case "nullmove" -> {
+                nullMove = Boolean.parseBoolean(value);
+                if (engine != null) engine.setNullMovePruning(nullMove);
+            }
+            case "lmr" -> {
+                lateMoveReductions = Boolean.parseBoolean(value);
+                if (engine != null) engine.setLateMoveReductions(lateMoveReductions);
+            }
+            case "futility" -> {
+                futility = Boolean.parseBoolean(value);
+                if (engine != null) engine.setFutilityPruning(futility);
+            }
+            default -> { } // Ponder e opções desconhecidas: nada a configurar
+        }
+    }
+
+    /** "position startpos|fen <FEN> [moves m1 m2 ...]". */
+    private void position(String[] t) {
+        int i = 1;
+        Game next;
+        if (t.length > 1 && t[1].equals("startpos")) {
+            next = new Game();
+            i = 2;
+        } else if (t.length > 1 && t[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (i = 2; i < t.length && !t[i].equals("moves"); i++) fen.append(t[i]).append(' ');
+            try {
+                next = Game.fromFen(fen.toString().trim());
+            } catch (RuntimeException e) {
+                send("info string FEN inválida: " + fen.toString().trim());
+                return;
+            }
+        } else {
+            return;
+        }
+        if (i < t.length && t[i].equals("moves")) {
+            for (i++; i < t.length; i++) {
+                int move = Notation.fromUci(next, t[i]);
+                if (move == PackedMove.NONE) {
+                    send("info string lance ilegal: " + t[i]);
+                    break;
+                }
+                next.makeMove(move);
+            }
+        }
+        game = next;
+    }
+
+    private void go(String[] t) {
+        stopSearch();
+        int depth = 0, movesToGo = 0;
+        long nodes = 0, moveTime = 0, wtime = -1, btime = -1, winc = 0, binc = 0;
+        boolean infinite = false, ponder = false;
+        try {
+            for (int i = 1; i < t.length; i++) {
+                switch (t[i]) {
+                    case "depth" -> depth = Integer.parseInt(t[++i]);
+                    case "nodes" -> nodes = Long.parseLong(t[++i]);
+                    case "movetime" -> moveTime = Long.parseLong(t[++i]);
+                    case "wtime" -> wtime = Long.parseLong(t[++i]);
+                    case "btime" -> btime = Long.parseLong(t[++i]);
+                    case "winc" -> winc = Long.parseLong(t[++i]);
+                    case "binc" -> binc = Long.parseLong(t[++i]);
+                    case "movestogo" -> movesToGo = Integer.parseInt(t[++i]);
+                    case "infinite" -> infinite = true;
+                    case "ponder" -> ponder = true;
+                    default -> { } // searchmoves, mate: não suportados
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            send("info string go inválido");
+        }
+
+        long clock = game.whiteToMove() ? wtime : btime;
+        long increment = game.whiteToMove() ? winc : binc;
+        TimeManager budget;
+        if (infinite) budget = TimeManager.infinite();
+        else if (moveTime > 0) budget = TimeManager.forMoveTime(moveTime);
+        else if (clock >= 0) budget = TimeManager.forClock(clock, increment, movesToGo);
+        else budget = TimeManager.infinite(); // só depth/nodes (ou nada): até o limite ou stop
+
+        MinimaxAI ai = engine();
+        ai.setMaxDepth(depth > 0 ? depth : Integer.MAX_VALUE);
+        ai.setNodeLimit(nodes);
+        searchTime = ponder ? TimeManager.infinite() : budget;
+        ponderBudget = ponder ? budget : null;
+        synchronized (hold) {
+            holding = infinite || ponder;
+        }
+
+        Game root = game;
+        TimeManager time = searchTime;
+        searchThread = new Thread(() -> search(ai, root, time), "uci-search");
+        searchThread.start();
+    }
+
+    private void search(MinimaxAI ai, Game root, TimeManager time) {
+        Move best = ai.findBestMove(root, time);
+        synchronized (hold) {
+            while (holding) {
+                try {
+                    hold.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (best == null) {
+            send("bestmove 0000");
+            return;
+        }
+        Move reply = ai.getPonderMove();
+        send("bestmove " + Notation.toUci(best) + (reply == null ? "" : " ponder " + Notation.toUci(reply)));
+    }
+
+    /** O adversário jogou o lance esperado: a busca de ponder segue com os prazos normais. */
+    private void ponderHit() {
+        if (searchThread == null || ponderBudget == null) return;
+        searchTime.startClock(ponderBudget);
+        ponderBudget = null;
+        release();
+    }
+
+    /** Interrompe a busca em andamento (se houver) e espera o bestmove sair. */
+    private void stopSearch() {
+        if (searchThread == null) return;
+        searchTime.stop();
+        release();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        searchTime = null;
+        ponderBudget = null;
+    }
+
+    private void release() {
+        synchronized (hold) {
+            holding = false;
+            hold.notifyAll();
+        }
+    }
+
+    // ==== motor e saída ====
+
+    private MinimaxAI engine() {
+        if (engine == null) {
+            engine = new MinimaxAI(0, new TranspositionTable(hashMb));
+            try {
+                if (ownBook) engine.setOpeningBook(OpeningBook.openIfPresent(Path.of(bookFile)));
+            } catch (UncheckedIOException e) {
+                send("info string " + e.getMessage() + ", jogando sem livro");
+            }
+            try {
+                engine.setBitbases(Bitbases.openIfPresent(Path.of(bitbaseFolder)));
+            } catch (UncheckedIOException e) {
+                send("info string " + e.getMessage() + ", jogando sem bitbases");
+            }
+            engine.setNullMovePruning(nullMove);
+            engine.setLateMoveReductions(lateMoveReductions);
+            engine.setFutilityPruning(futility);
+            engine.setSearchListener(new InfoWriter());
+            engine.setSearchMonitor(SearchMonitor.register("uci"));
+        }
+        return engine;
+    }
+
+    /** Uma linha "info" por iteração completa. */
+    private final class InfoWriter implements SearchListener {
+        @Override
+        public void iterationFinished(int depth, int score, long nodes, long elapsedMillis, int[] pv) {
+            StringBuilder line = new StringBuilder("info depth ").append(depth);
+            if (Math.abs(score) > Evaluation.MATE_BOUND) {
+                // Mate em N lances (não meios-lances); negativo quando é quem joga que leva mate
+                int moves = (Evaluation.MATE - Math.abs(score) + 1) / 2;
+                line.append(" score mate ").append(score > 0 ? moves : -moves);
+            } else {
+                line.append(" score cp ").append(score);
+            }
+            line.append(" nodes ").append(nodes)
+                .append(" nps ").append(nodes * 1000 / Math.max(1, elapsedMillis))
+                .append(" time ").append(elapsedMillis)
+                .append(" pv");
+            for (int move : pv) line.append(' ').append(PackedMove.toString(move));
+            send(line.toString());
+        }
+    }
+
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 // ========================= src/view/ChessGUI.java =========================
 package view;
 
+import ai.Bitbases;
 import ai.MinimaxAI;
+import ai.OpeningBook;
+import ai.PonderingAI;
 import controller.Game;
 import model.board.Move;
 import model.board.Position;
@@ -13,6 +16,10 @@ import javax.swing.border.Border;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,7 +27,12 @@ public class ChessGUI extends JFrame {
 
     private final Game game;
     private final MinimaxAI aiPlayer;
+    // Pensa no tempo do jogador humano (na resposta que a IA espera dele)
+    private final PonderingAI ponder;
     private boolean isVsAI = true;
+    private static final String BOOK_FILE = "book.bin";
+    private static final long AI_MOVE_TIME_MS = 1000;
+    private static final String BITBASE_FOLDER = "bitbases";
 
     private final JPanel boardPanel;
     private final JButton[][] squares = new JButton[8][8];
@@ -43,9 +55,29 @@ public class ChessGUI extends JFrame {
     public ChessGUI() {
         super("ChessGame");
         this.game = new Game();
-        this.aiPlayer = new MinimaxAI();
+        this.aiPlayer = new MinimaxAI(AI_MOVE_TIME_MS);
+        // Livro de aberturas opcional no diretório de trabalho (gerado por tools.BookBuilder)
+        try {
+            this.aiPlayer.setOpeningBook(OpeningBook.openIfPresent(Path.of(BOOK_FILE)));
+        } catch (UncheckedIOException e) {
+            warnMissingData(e, "sem livro de aberturas");
+        }
+        // Bitbases de finais opcionais (geradas por tools.BitbaseGenerator)
+        try {
+            this.aiPlayer.setBitbases(Bitbases.openIfPresent(Path.of(BITBASE_FOLDER)));
+        } catch (UncheckedIOException e) {
+            warnMissingData(e, "sem bitbases");
+        }
+        this.ponder = new PonderingAI(aiPlayer, AI_MOVE_TIME_MS);
 
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        // Fechar a janela encerra o ponder (e a thread dele) antes de sair
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                ponder.shutdown();
+            }
+        });
         setLayout(new BorderLayout(8, 8));
 
         // Painel do tabuleiro (8x8)
@@ -133,8 +165,10 @@ public class ChessGUI extends JFrame {
                 game.move(selected, clicked, promo);
                 selected = null;
                 legalForSelected.clear();
-                // Após o lance do jogador, aciona a IA
-                triggerAIMove();
+                // Após o lance do jogador, aciona a IA; se o lance não passou a vez para ela
+                // (fim de jogo, por exemplo), o ponder em andamento não serve mais
+                if (isVsAI && !game.whiteToMove() && !game.isGameOver()) triggerAIMove();
+                else ponder.stopPondering();
             } else if (p != null && p.isWhite() == game.whiteToMove()) {
                 // Troca a seleção para outra peça da vez
                 selected = clicked;
@@ -148,6 +182,12 @@ public class ChessGUI extends JFrame {
         refresh();
     }
 
+    /** Livro ou bitbases presentes mas ilegíveis: avisa e o jogo segue sem eles. */
+    private static void warnMissingData(UncheckedIOException e, String fallback) {
+        JOptionPane.showMessageDialog(null, e.getMessage() + " (" + e.getCause().getMessage() + ").\nJogando " + fallback + ".",
+                "Aviso", JOptionPane.WARNING_MESSAGE);
+    }
+
     /**
      * Aciona a IA para fazer um movimento se for a vez dela.
      * Usa um SwingWorker para não travar a interface gráfica.
@@ -161,10 +201,10 @@ public class ChessGUI extends JFrame {
             // SwingWorker para rodar a IA em uma thread separada
             new SwingWorker<Move, Void>() {
                 @Override
-                protected Move doInBackground() throws Exception {
-                    // Simula um pequeno atraso para a jogada não ser instantânea
-                    Thread.sleep(1000);
-                    return aiPlayer.findBestMove(game);
+                protected Move doInBackground() {
+                    // O tempo de "pensar" agora é todo gasto na busca (aprofundamento iterativo);
+                    // se a IA acertou o lance do jogador, continua a busca que já vinha fazendo
+                    return ponder.findBestMove(game);
                 }
 
                 @Override
@@ -173,6 +213,8 @@ public class ChessGUI extends JFrame {
                         Move aiMove = get();
                         if (aiMove != null) {
                             game.move(aiMove.getFrom(), aiMove.getTo(), aiMove.getPromotion());
+                            // Enquanto o jogador pensa, a IA pondera a resposta esperada
+                            ponder.startPondering(game);
                         }
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -269,13 +311,17 @@ public class ChessGUI extends JFrame {
                 }
             }
             String winner = game.winnerText();
-            status.setText("Fim de jogo — Vencedor: " + (winner == null ? "" : winner));
+            status.setText(game.isDraw()
+                    ? "Fim de jogo — Empate"
+                    : "Fim de jogo — Vencedor: " + (winner == null ? "" : winner));
 
             if (!gameOverAnnounced) {
                 gameOverAnnounced = true;
                 JOptionPane.showMessageDialog(
                         this,
-                        "Rei capturado. Vencedor: " + (winner == null ? "" : winner),
+                        game.isDraw()
+                                ? (game.isStalemate() ? "Empate por afogamento." : "Empate por repetição tripla.")
+                                : "Xeque-mate. Vencedor: " + (winner == null ? "" : winner),
                         "Fim de jogo",
                         JOptionPane.INFORMATION_MESSAGE
                 );